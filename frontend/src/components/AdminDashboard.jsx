@@ -1,15 +1,23 @@
 import React, { useEffect, useState } from 'react'
 import {
   createDoctor,
-  getAdminAppointments,
   getAdminStats,
+  getDoctors,
+  searchAdminAppointments,
   updateAppointmentStatus,
 } from '../services/api'
 import './AdminDashboard.css'
 
+const EMPTY_FILTERS = { doctorId: '', patientName: '', status: '', from: '', to: '' }
+
 const AdminDashboard = () => {
   const [stats, setStats] = useState(null)
   const [appointments, setAppointments] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
+  const [doctors, setDoctors] = useState([])
+  const [filters, setFilters] = useState(EMPTY_FILTERS)
+  // The filters of the listing on screen, so "Load more" ignores edits not yet searched
+  const [appliedFilters, setAppliedFilters] = useState(EMPTY_FILTERS)
   const [doctorName, setDoctorName] = useState('')
   const [specialization, setSpecialization] = useState('')
   const [message, setMessage] = useState(null)
@@ -19,16 +27,45 @@ const AdminDashboard = () => {
     setStats(data)
   }
 
-  const loadAppointments = async () => {
-    const data = await getAdminAppointments()
-    setAppointments(data)
+  const loadAppointments = async (cursor, activeFilters = appliedFilters) => {
+    const page = await searchAdminAppointments(
+      {
+        ...activeFilters,
+        from: activeFilters.from && `${activeFilters.from}T00:00:00`,
+        to: activeFilters.to && `${activeFilters.to}T00:00:00`,
+      },
+      cursor,
+    )
+    setAppointments((prev) => (cursor ? [...prev, ...page.items] : page.items))
+    setNextCursor(page.nextCursor)
+    setAppliedFilters(activeFilters)
   }
 
   useEffect(() => {
     loadStats()
     loadAppointments()
+    getDoctors().then(setDoctors)
   }, [])
 
+  const handleFilterChange = (e) => {
+    setFilters((prev) => ({ ...prev, [e.target.name]: e.target.value }))
+  }
+
+  const handleSearch = async (e) => {
+    e.preventDefault()
+    setMessage(null)
+    try {
+      await loadAppointments(null, filters)
+    } catch (err) {
+      setMessage(err?.response?.data?.message || 'Search failed')
+    }
+  }
+
+  const handleClearFilters = () => {
+    setFilters(EMPTY_FILTERS)
+    loadAppointments(null, EMPTY_FILTERS)
+  }
+
   const handleCreateDoctor = async (e) => {
     e.preventDefault()
     setMessage(null)
@@ -105,8 +142,43 @@ const AdminDashboard = () => {
       {message && <p className="feedback-message">{message}</p>}
 
       <section className="admin-section">
-        <h3>All Appointments</h3>
-        {appointments.length === 0 && <p>No appointments yet.</p>}
+        <h3>Appointments</h3>
+        <form className="search-form" onSubmit={handleSearch}>
+          <select name="doctorId" value={filters.doctorId} onChange={handleFilterChange}>
+            <option value="">All doctors</option>
+            {doctors.map((d) => (
+              <option key={d.id} value={d.id}>
+                {d.name}
+              </option>
+            ))}
+          </select>
+          <input
+            type="text"
+            name="patientName"
+            placeholder="Patient name starts with"
+            value={filters.patientName}
+            onChange={handleFilterChange}
+          />
+          <select name="status" value={filters.status} onChange={handleFilterChange}>
+            <option value="">Any status</option>
+            <option value="PENDING">Pending</option>
+            <option value="CONFIRMED">Confirmed</option>
+            <option value="CANCELLED">Cancelled</option>
+          </select>
+          <label>
+            From
+            <input type="date" name="from" value={filters.from} onChange={handleFilterChange} />
+          </label>
+          <label>
+            To
+            <input type="date" name="to" value={filters.to} onChange={handleFilterChange} />
+          </label>
+          <button type="submit">Search</button>
+          <button type="button" className="secondary" onClick={handleClearFilters}>
+            Clear
+          </button>
+        </form>
+        {appointments.length === 0 && <p>No matching appointments.</p>}
         {appointments.length > 0 && (
           <table className="appointments-table">
             <thead>
@@ -150,6 +222,11 @@ const AdminDashboard = () => {
             </tbody>
           </table>
         )}
+        {nextCursor && (
+          <button type="button" className="load-more" onClick={() => loadAppointments(nextCursor)}>
+            Load more
+          </button>
+        )}
       </section>
     </div>
   )
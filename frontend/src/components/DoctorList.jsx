@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react'
-import { getDoctors, bookAppointment } from '../services/api'
+import { getDoctors, bookAppointment, getDoctorAvailability } from '../services/api'
 import './DoctorList.css'
 
 const DoctorList = () => {
@@ -8,6 +8,7 @@ const DoctorList = () => {
   const [minDateTime, setMinDateTime] = useState('')
   const [search, setSearch] = useState('')
   const [message, setMessage] = useState(null)
+  const [availability, setAvailability] = useState({})
 
   useEffect(() => {
     const fetchDoctors = async () => {
@@ -42,6 +43,15 @@ const DoctorList = () => {
     }
   }
 
+  const handleShowAvailability = async (doctorId) => {
+    try {
+      const data = await getDoctorAvailability(doctorId)
+      setAvailability((prev) => ({ ...prev, [doctorId]: data.days.filter((day) => day.freeSlots.length > 0) }))
+    } catch (err) {
+      setMessage(err?.response?.data?.message || 'Failed to load availability')
+    }
+  }
+
   const filteredDoctors = doctors.filter((doctor) => {
     const term = search.toLowerCase().trim()
     if (!term) return true
@@ -82,7 +92,30 @@ const DoctorList = () => {
           <div key={doctor.id} className="doctor-card">
             <h3>{doctor.name}</h3>
             <p>{doctor.specialization}</p>
-            <button onClick={() => handleBook(doctor.id)}>Book</button>
+            {availability[doctor.id] && (
+              <div className="availability">
+                {availability[doctor.id].length === 0 && <p>No free slots in the next two weeks</p>}
+                {availability[doctor.id].slice(0, 3).map((day) => (
+                  <div key={day.date} className="availability-day">
+                    <span>{day.date}</span>
+                    {day.freeSlots.slice(0, 4).map((slot) => (
+                      <button
+                        key={slot}
+                        type="button"
+                        className="slot-button"
+                        onClick={() => setSelectedTime(`${day.date}T${slot.slice(0, 5)}`)}
+                      >
+                        {slot.slice(0, 5)}
+                      </button>
+                    ))}
+                  </div>
+                ))}
+              </div>
+            )}
+            <div className="doctor-card-actions">
+              <button onClick={() => handleShowAvailability(doctor.id)}>Availability</button>
+              <button onClick={() => handleBook(doctor.id)}>Book</button>
+            </div>
           </div>
         ))}
       </div>
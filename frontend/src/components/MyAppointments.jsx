@@ -1,29 +1,66 @@
 import React, { useEffect, useState } from 'react'
-import { getMyAppointments } from '../services/api'
+import { getMyAppointments, streamAppointmentUpdates } from '../services/api'
 import './MyAppointments.css'
 
 const MyAppointments = () => {
+  const [view, setView] = useState('upcoming')
   const [appointments, setAppointments] = useState([])
+  const [nextCursor, setNextCursor] = useState(null)
   const [loading, setLoading] = useState(false)
+  // Bumped when the update stream reconnects, to reload the first page with anything missed meanwhile
+  const [reloads, setReloads] = useState(0)
 
   useEffect(() => {
     const load = async () => {
       setLoading(true)
       try {
-        const data = await getMyAppointments()
-        setAppointments(data)
+        const page = await getMyAppointments(view)
+        setAppointments(page.items)
+        setNextCursor(page.nextCursor)
       } finally {
         setLoading(false)
       }
     }
     load()
+  }, [view, reloads])
+
+  const loadMore = async () => {
+    const page = await getMyAppointments(view, nextCursor)
+    setAppointments((prev) => [...prev, ...page.items])
+    setNextCursor(page.nextCursor)
+  }
+
+  useEffect(() => {
+    const stop = streamAppointmentUpdates(
+      (update) => {
+        setAppointments((current) =>
+          current.map((a) => (a.id === update.appointmentId ? { ...a, status: update.status } : a))
+        )
+      },
+      () => setReloads((count) => count + 1)
+    )
+    return stop
   }, [])
 
   return (
     <div className="appointments-container">
       <h2>My Appointments</h2>
+      <div className="view-tabs">
+        <button
+          type="button"
+          className={view === 'upcoming' ? 'active' : ''}
+          onClick={() => setView('upcoming')}
+        >
+          Upcoming
+        </button>
+        <button type="button" className={view === 'past' ? 'active' : ''} onClick={() => setView('past')}>
+          Past
+        </button>
+      </div>
       {loading && <p>Loading...</p>}
-      {!loading && appointments.length === 0 && <p>No appointments yet.</p>}
+      {!loading && appointments.length === 0 && (
+        <p>{view === 'upcoming' ? 'No upcoming appointments.' : 'No past appointments.'}</p>
+      )}
 
       {!loading && appointments.length > 0 && (
         <table className="appointments-table">
@@ -49,6 +86,11 @@ const MyAppointments = () => {
           </tbody>
         </table>
       )}
+      {!loading && nextCursor && (
+        <button type="button" className="load-more" onClick={loadMore}>
+          Load more
+        </button>
+      )}
     </div>
   )
 }
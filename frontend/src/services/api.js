@@ -31,6 +31,11 @@ export const getDoctors = async () => {
   return response.data
 }
 
+export const getDoctorAvailability = async (doctorId, from, to) => {
+  const response = await api.get(`/doctors/${doctorId}/availability`, { params: { from, to } })
+  return response.data
+}
+
 export const createDoctor = async (name, specialization) => {
   const response = await api.post('/doctors', { name, specialization })
   return response.data
@@ -41,18 +46,101 @@ export const bookAppointment = async (doctorId, appointmentTime) => {
   return response.data
 }
 
-export const getMyAppointments = async () => {
-  const response = await api.get('/appointments/me')
+export const getMyAppointments = async (view, cursor) => {
+  const response = await api.get('/appointments/me', { params: { view, cursor } })
   return response.data
 }
 
+const STREAM_RETRY_MIN_MS = 1000
+const STREAM_RETRY_MAX_MS = 30000
+
+const sleep = (ms, signal) =>
+  new Promise((resolve) => {
+    const timer = setTimeout(resolve, ms)
+    signal.addEventListener(
+      'abort',
+      () => {
+        clearTimeout(timer)
+        resolve()
+      },
+      { once: true }
+    )
+  })
+
+// EventSource cannot send the Authorization header, so the stream is read with fetch. The server
+// ends streams after appointments.stream.timeout-ms, when the client falls behind, or when a newer
+// connection of the same user replaces it; the stream is then reopened with backoff, and
+// onReconnect is called once it is back so the caller can reload what it missed meanwhile.
+export const streamAppointmentUpdates = (onUpdate, onReconnect) => {
+  const controller = new AbortController()
+  const { signal } = controller
+
+  const readOnce = async (onOpen) => {
+    const response = await fetch(`${api.defaults.baseURL}/appointments/stream`, {
+      headers: { Authorization: `Bearer ${localStorage.getItem('token')}` },
+      signal,
+    })
+    if (response.status === 401 || response.status === 403) {
+      // Logged out or the token expired; another attempt would be rejected as well
+      controller.abort()
+      return
+    }
+    if (!response.ok) throw new Error(`Stream rejected with ${response.status}`)
+    onOpen()
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+    let buffer = ''
+    for (;;) {
+      const { value, done } = await reader.read()
+      if (done) return
+      buffer += value
+      const frames = buffer.split('\n\n')
+      buffer = frames.pop()
+      frames.forEach((frame) => {
+        const lines = frame.split('\n')
+        if (!lines.includes('event:appointment-status')) return
+        const data = lines.filter((line) => line.startsWith('data:')).map((line) => line.slice(5)).join('\n')
+        onUpdate(JSON.parse(data))
+      })
+    }
+  }
+
+  const run = async () => {
+    let delay = STREAM_RETRY_MIN_MS
+    let opened = false
+    while (!signal.aborted) {
+      const startedAt = Date.now()
+      try {
+        await readOnce(() => {
+          if (opened && onReconnect) onReconnect()
+          opened = true
+        })
+      } catch {
+        // Network error or rejected request: retried below
+      }
+      if (signal.aborted) return
+      // A stream that stayed open for a while was healthy; start the backoff over
+      if (Date.now() - startedAt > STREAM_RETRY_MAX_MS) delay = STREAM_RETRY_MIN_MS
+      await sleep(delay / 2 + Math.random() * (delay / 2), signal)
+      delay = Math.min(delay * 2, STREAM_RETRY_MAX_MS)
+    }
+  }
+
+  run()
+  return () => controller.abort()
+}
+
 export const getAdminStats = async () => {
   const response = await api.get('/admin/stats')
   return response.data
 }
 
-export const getAdminAppointments = async () => {
-  const response = await api.get('/admin/appointments')
+// Empty filters are left out of the request
+export const searchAdminAppointments = async (filters, cursor) => {
+  const params = { cursor }
+  Object.entries(filters).forEach(([key, value]) => {
+    if (value) params[key] = value
+  })
+  const response = await api.get('/admin/appointments/search', { params })
   return response.data
 }
 
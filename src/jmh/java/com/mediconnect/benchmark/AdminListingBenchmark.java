@@ -0,0 +1,91 @@
+package com.mediconnect.benchmark;
+
+import com.mediconnect.dto.AppointmentCursor;
+import com.mediconnect.model.Appointment;
+import com.mediconnect.model.AppointmentStatus;
+import com.mediconnect.model.Doctor;
+import com.mediconnect.model.User;
+import com.mediconnect.repository.AppointmentRepository;
+import com.mediconnect.repository.DoctorRepository;
+import com.mediconnect.service.AdminService;
+import com.mediconnect.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AdminListingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Param({"1000", "100000"})
+    private int appointments;
+
+    private ConfigurableApplicationContext context;
+    private AdminService adminService;
+    private String lastPageCursor;
+    private Long doctorId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        adminService = context.getBean(AdminService.class);
+
+        UserService userService = context.getBean(UserService.class);
+        List<User> patients = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            patients.add(userService.registerPatient("bench-patient-" + i, "Bench Patient " + i, "secret"));
+        }
+        List<Doctor> doctors = context.getBean(DoctorRepository.class).findAll();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        List<Appointment> rows = new ArrayList<>(appointments);
+        for (int i = 0; i < appointments; i++) {
+            rows.add(Appointment.builder()
+                    .doctor(doctors.get(i % doctors.size()))
+                    .patient(patients.get(i % patients.size()))
+                    .appointmentTime(start.plusMinutes(30L * i))
+                    .status(AppointmentStatus.values()[i % AppointmentStatus.values().length])
+                    .build());
+        }
+        context.getBean(AppointmentRepository.class).saveAll(rows);
+        doctorId = doctors.get(0).getId();
+
+        Appointment last = rows.get(rows.size() - PAGE_SIZE - 1);
+        lastPageCursor = new AppointmentCursor(last.getAppointmentTime(), last.getId()).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object firstPage() {
+        return adminService.getAppointments(null, null, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object lastPage() {
+        return adminService.getAppointments(null, null, null, lastPageCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object searchByDoctorAndStatus() {
+        return adminService.searchAppointments(doctorId, null, AppointmentStatus.CONFIRMED, null, null, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object searchByPatientName() {
+        return adminService.searchAppointments(null, "Bench Patient 42", null, null, null, null, PAGE_SIZE);
+    }
+}
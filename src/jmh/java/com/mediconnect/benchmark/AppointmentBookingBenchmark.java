@@ -0,0 +1,91 @@
+package com.mediconnect.benchmark;
+
+import com.mediconnect.dto.AppointmentRequestDto;
+import com.mediconnect.exception.DoctorOverloadedException;
+import com.mediconnect.repository.DoctorRepository;
+import com.mediconnect.service.AppointmentService;
+import com.mediconnect.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AppointmentBookingBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private AppointmentService appointmentService;
+    private Authentication patient;
+    private Long doctorId;
+    private LocalDateTime fullDay;
+    private final AtomicLong dayOffset = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        appointmentService = context.getBean(AppointmentService.class);
+        context.getBean(UserService.class).registerPatient("bench-patient", "Bench Patient", "secret");
+        doctorId = context.getBean(DoctorRepository.class).findAll().get(0).getId();
+        patient = new UsernamePasswordAuthenticationToken(
+                "bench-patient", null, List.of(new SimpleGrantedAuthority("ROLE_PATIENT")));
+
+        // Fill one day up to the daily cap so the rejection path can be measured on its own
+        fullDay = LocalDateTime.now().plusYears(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        SecurityContextHolder.getContext().setAuthentication(patient);
+        try {
+            for (int i = 0; i < 5; i++) {
+                appointmentService.bookAppointment(request(fullDay.plusMinutes(30L * i)));
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object bookAppointment() {
+        // Every invocation lands on a fresh day so the daily cap never rejects it
+        LocalDateTime time = LocalDateTime.now().plusDays(1 + dayOffset.incrementAndGet()).withHour(10);
+        SecurityContextHolder.getContext().setAuthentication(patient);
+        try {
+            return appointmentService.bookAppointment(request(time));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Object bookAppointmentOnFullDay() {
+        SecurityContextHolder.getContext().setAuthentication(patient);
+        try {
+            return appointmentService.bookAppointment(request(fullDay.plusHours(6)));
+        } catch (DoctorOverloadedException ex) {
+            return ex;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private AppointmentRequestDto request(LocalDateTime time) {
+        AppointmentRequestDto request = new AppointmentRequestDto();
+        request.setDoctorId(doctorId);
+        request.setAppointmentTime(time);
+        return request;
+    }
+}
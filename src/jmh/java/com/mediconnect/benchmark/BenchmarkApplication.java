@@ -0,0 +1,61 @@
+package com.mediconnect.benchmark;
+
+import com.mediconnect.MediConnectApplication;
+import com.mediconnect.config.DataInitializer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the full application against a private in-memory H2 database so benchmarks
+ * exercise the real service, security and persistence wiring. Extra arguments replace the
+ * defaults with the same key, e.g. to point a benchmark at a real database.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        // Command line arguments take precedence over a local application.properties
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.open-in-view=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "--spring.jpa.properties.hibernate.order_inserts=true",
+                "--spring.jpa.properties.hibernate.order_updates=true",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+                "--spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+                "--spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+                "--spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create",
+                "--jwt.secret=benchmark-secret-key-that-is-at-least-32-bytes",
+                "--jwt.expiration-ms=3600000",
+                // Benchmarks drive one user far beyond any production budget
+                "--rate-limit.enabled=false",
+                "--appointments.journal.enabled=true",
+                "--appointments.journal.directory=" + Path.of("target", "jmh-journal", UUID.randomUUID().toString()).toAbsolutePath(),
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"
+        ));
+        // Spring joins repeated command line options with commas, so a default must be dropped, not shadowed
+        for (String extra : extraArgs) {
+            String key = extra.substring(0, extra.indexOf('=') + 1);
+            args.removeIf(arg -> arg.startsWith(key));
+        }
+        args.addAll(List.of(extraArgs));
+        ConfigurableApplicationContext context = SpringApplication.run(MediConnectApplication.class, args.toArray(String[]::new));
+        // Benchmarks book against the seeded doctors, which are created in the background
+        context.getBean(DataInitializer.class).seeded().join();
+        return context;
+    }
+}
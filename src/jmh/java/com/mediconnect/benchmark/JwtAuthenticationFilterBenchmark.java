@@ -0,0 +1,58 @@
+package com.mediconnect.benchmark;
+
+import com.mediconnect.security.JwtAuthenticationFilter;
+import com.mediconnect.security.JwtService;
+import com.mediconnect.service.UserService;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    private boolean statelessAuth;
+
+    private ConfigurableApplicationContext context;
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("--jwt.stateless-auth=" + statelessAuth);
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        context.getBean(UserService.class).registerPatient("bench-patient", "Bench Patient", "secret");
+        authorization = "Bearer " + context.getBean(JwtService.class).generateToken("bench-patient", "PATIENT", 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws ServletException, IOException {
+        // A fresh request per invocation; OncePerRequestFilter skips requests it has already seen
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/appointments/me");
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.mediconnect.benchmark;
+
+import com.mediconnect.security.JwtService;
+import com.mediconnect.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a blocking JDBC endpoint over HTTP with more concurrent clients than Tomcat has
+ * platform worker threads, once with platform threads and once with virtual threads.
+ * Throughput mode gives ops/s; sample mode gives the latency percentiles (p0.99 etc.).
+ * <p>
+ * The virtual-thread runs need a Java 21+ fork, e.g. {@code -Djmh.args="-jvm /path/to/jdk21/bin/java VirtualThread"}.
+ * Pinned carrier threads are reported on stdout via {@code -Djdk.tracePinnedThreads=short}. Only a run
+ * against MySQL says anything about the production driver, so point it at a scratch database, whose
+ * tables are dropped afterwards:
+ * {@code -p jdbcUrl=jdbc:mysql://localhost:3306/mediconnect_bench?createDatabaseIfNotExist=true -p jdbcUsername=root -p jdbcPassword=...}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(400)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class VirtualThreadBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"20"})
+    private int poolSize;
+
+    // Empty runs against the in-memory H2 database
+    @Param({""})
+    private String jdbcUrl;
+
+    @Param({"root"})
+    private String jdbcUsername;
+
+    @Param({""})
+    private String jdbcPassword;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need a Java 21+ JVM; pass -jvm to JMH");
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize));
+        if (!jdbcUrl.isEmpty()) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + jdbcUrl,
+                    "--spring.datasource.username=" + jdbcUsername,
+                    "--spring.datasource.password=" + jdbcPassword,
+                    "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect"));
+        }
+        context = BenchmarkApplication.start(args.toArray(String[]::new));
+        context.getBean(UserService.class).registerPatient("bench-patient", "Bench Patient", "secret");
+        String token = context.getBean(JwtService.class).generateToken("bench-patient", "PATIENT", 0);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/appointments/me"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int myAppointments() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,76 @@
+package com.mediconnect.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency samples and status codes for one endpoint. Each worker thread owns its recorders,
+ * so recording needs no synchronization; they are merged once the run is over.
+ */
+final class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    void record(long nanos, int status) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = other.samples[i];
+        }
+        other.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum));
+    }
+
+    int getCount() {
+        return count;
+    }
+
+    Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        long errors = statuses.entrySet().stream()
+                .filter(e -> e.getKey() < 200 || e.getKey() >= 300)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", round(count / seconds));
+        summary.put("p50Ms", millis(percentile(sorted, 0.50)));
+        summary.put("p95Ms", millis(percentile(sorted, 0.95)));
+        summary.put("p99Ms", millis(percentile(sorted, 0.99)));
+        summary.put("maxMs", millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        statuses.forEach((status, n) -> byStatus.put(String.valueOf(status), n));
+        summary.put("statuses", byStatus);
+        return summary;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,262 @@
+package com.mediconnect.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediconnect.MediConnectApplication;
+import com.mediconnect.config.DataInitializer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load generator for the login → book → list workflow.
+ * <p>
+ * Starts the application on the {@code embedded} H2 profile (or targets {@code loadtest.base-url}),
+ * then runs {@code loadtest.concurrency} virtual users for {@code loadtest.duration-seconds} after a
+ * {@code loadtest.warmup-seconds} warm-up. Each user registers and logs in once, then picks
+ * requests from a fixed weighted mix. Per-endpoint throughput and latency percentiles are written
+ * as JSON to {@code loadtest.output}. Program arguments are passed to the embedded application.
+ */
+public final class LoadTestRunner {
+
+    enum Scenario {
+        REGISTER("POST /api/auth/register", 5),
+        LOGIN("POST /api/auth/login", 10),
+        DOCTORS("GET /api/doctors", 30),
+        BOOK("POST /api/appointments", 15),
+        MY_APPOINTMENTS("GET /api/appointments/me", 25),
+        ADMIN_STATS("GET /api/admin/stats", 10),
+        ADMIN_APPOINTMENTS("GET /api/admin/appointments", 5);
+
+        private final String label;
+        private final int weight;
+
+        Scenario(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    private static final int TOTAL_WEIGHT = Arrays.stream(Scenario.values()).mapToInt(s -> s.weight).sum();
+    private static final String PASSWORD = "loadtest-password";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private String adminToken;
+    private List<Long> doctorIds;
+
+    private LoadTestRunner(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+        int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 60);
+        String output = System.getProperty("loadtest.output", "target/loadtest-result.json");
+        String baseUrl = System.getProperty("loadtest.base-url", "");
+
+        ConfigurableApplicationContext context = null;
+        if (baseUrl.isBlank()) {
+            SpringApplication application = new SpringApplication(MediConnectApplication.class);
+            application.setAdditionalProfiles("embedded");
+            context = application.run(args);
+            // The admin account and doctors are seeded in the background once the app is ready
+            context.getBean(DataInitializer.class).seeded().join();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+        }
+        try {
+            LoadTestRunner runner = new LoadTestRunner(baseUrl);
+            Map<String, Object> report = runner.run(concurrency, warmupSeconds, durationSeconds);
+            String json = runner.objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+            Path path = Path.of(output);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            Files.writeString(path, json);
+            System.out.println(json);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private Map<String, Object> run(int concurrency, int warmupSeconds, int durationSeconds) throws Exception {
+        adminToken = login(System.getProperty("loadtest.admin-username", "admin"),
+                System.getProperty("loadtest.admin-password", "admin123"));
+        doctorIds = new ArrayList<>();
+        for (JsonNode doctor : objectMapper.readTree(send(get("/api/doctors", adminToken)).body())) {
+            doctorIds.add(doctor.get("id").asLong());
+        }
+        if (doctorIds.isEmpty()) {
+            throw new IllegalStateException("No doctors to book against");
+        }
+
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long measureUntil = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<Scenario, LatencyRecorder>>> results = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            results.add(workers.submit(() -> runUser(measureFrom, measureUntil)));
+        }
+
+        Map<Scenario, LatencyRecorder> merged = new EnumMap<>(Scenario.class);
+        for (Future<Map<Scenario, LatencyRecorder>> result : results) {
+            result.get().forEach((scenario, recorder) ->
+                    merged.computeIfAbsent(scenario, s -> new LatencyRecorder()).merge(recorder));
+        }
+        workers.shutdown();
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("baseUrl", baseUrl);
+        config.put("concurrency", concurrency);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("durationSeconds", durationSeconds);
+        config.put("javaVersion", Runtime.version().toString());
+        config.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long total = 0;
+        for (Scenario scenario : Scenario.values()) {
+            LatencyRecorder recorder = merged.getOrDefault(scenario, new LatencyRecorder());
+            endpoints.put(scenario.label, recorder.summary(durationSeconds));
+            total += recorder.getCount();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("totalThroughputPerSecond", Math.round(total * 100.0 / durationSeconds) / 100.0);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private Map<Scenario, LatencyRecorder> runUser(long measureFrom, long measureUntil) throws Exception {
+        Map<Scenario, LatencyRecorder> recorders = new EnumMap<>(Scenario.class);
+        String username = register();
+        String token = login(username, PASSWORD);
+
+        while (System.nanoTime() < measureUntil) {
+            Scenario scenario = pick();
+            HttpRequest request = switch (scenario) {
+                case REGISTER -> registerRequest("lt-" + UUID.randomUUID());
+                case LOGIN -> loginRequest(username, PASSWORD);
+                case DOCTORS -> get("/api/doctors", token);
+                case BOOK -> bookRequest(token);
+                case MY_APPOINTMENTS -> get("/api/appointments/me", token);
+                case ADMIN_STATS -> get("/api/admin/stats", adminToken);
+                case ADMIN_APPOINTMENTS -> get("/api/admin/appointments", adminToken);
+            };
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                status = -1;
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= measureUntil) {
+                recorders.computeIfAbsent(scenario, s -> new LatencyRecorder()).record(end - start, status);
+            }
+        }
+        return recorders;
+    }
+
+    private static Scenario pick() {
+        int roll = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Scenario scenario : Scenario.values()) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private String register() throws IOException, InterruptedException {
+        String username = "lt-" + UUID.randomUUID();
+        HttpResponse<String> response = send(registerRequest(username));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Registration failed with status " + response.statusCode());
+        }
+        return username;
+    }
+
+    private String login(String username, String password) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(loginRequest(username, password));
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username + " with status " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpRequest registerRequest(String username) {
+        return post("/api/auth/register", null,
+                Map.of("username", username, "fullName", "Load Test " + username, "password", PASSWORD));
+    }
+
+    private HttpRequest loginRequest(String username, String password) {
+        return post("/api/auth/login", null, Map.of("username", username, "password", password));
+    }
+
+    private HttpRequest bookRequest(String token) {
+        // Spread bookings over many days so the daily cap is rarely the limiting factor
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime time = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+                .plusDays(1 + random.nextInt(3650))
+                .plusHours(9 + random.nextInt(8));
+        Long doctorId = doctorIds.get(random.nextInt(doctorIds.size()));
+        return post("/api/appointments", token, Map.of("doctorId", doctorId, "appointmentTime", time.toString()));
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, Map<String, Object> body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        try {
+            return builder.POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))).build();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,59 @@
+package com.mediconnect.config;
+
+import com.mediconnect.repository.AppointmentRepository;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the appointment id sequence past the ids already in the database before the web server
+ * starts, so a database that predates the sequence (appointments used IDENTITY ids) can be
+ * upgraded in place without new bookings hitting existing primary keys.
+ * <p>
+ * Runs as a lifecycle phase rather than at bean creation for the same reason as
+ * {@code InMemoryViewLoader}: the context must refresh without a database for AOT processing
+ * and the class-data-sharing training run.
+ */
+@Component
+public class AppointmentIdSequenceInitializer implements SmartLifecycle {
+
+    // Before InMemoryViewLoader and the web server
+    private static final int PHASE = -1;
+
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private boolean done;
+    private volatile boolean running;
+
+    public AppointmentIdSequenceInitializer(AppointmentRepository appointmentRepository,
+                                            PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void start() {
+        if (!done) {
+            transactionTemplate.executeWithoutResult(status -> appointmentRepository.advanceIdSequencePastExistingIds());
+            done = true;
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
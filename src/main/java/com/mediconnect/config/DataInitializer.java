@@ -2,33 +2,94 @@ package com.mediconnect.config;
 
 import com.mediconnect.model.Doctor;
 import com.mediconnect.repository.DoctorRepository;
+import com.mediconnect.service.DoctorService;
 import com.mediconnect.service.UserService;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Seeds the admin account and demo doctors before the application reports ready. With
+ * {@code seed.background=true} (the fast-startup profile) it runs in the background once the
+ * application is ready instead, so startup and readiness never wait on it.
+ */
 @Component
-@RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
     private final UserService userService;
     private final DoctorRepository doctorRepository;
+    private final DoctorService doctorService;
+    private final Executor executor;
+    private final boolean background;
+    private final CompletableFuture<Void> seeded = new CompletableFuture<>();
+
+    public DataInitializer(UserService userService,
+                           DoctorRepository doctorRepository,
+                           DoctorService doctorService,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor,
+                           @Value("${seed.background:false}") boolean background) {
+        this.userService = userService;
+        this.doctorRepository = doctorRepository;
+        this.doctorService = doctorService;
+        this.executor = executor;
+        this.background = background;
+    }
 
     @Override
     public void run(String... args) {
+        if (background) {
+            return;
+        }
+        try {
+            seed();
+        } catch (RuntimeException ex) {
+            seeded.completeExceptionally(ex);
+            throw ex;
+        }
+        seeded.complete(null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!background) {
+            return;
+        }
+        CompletableFuture.runAsync(this::seed, executor).whenComplete((result, ex) -> {
+            if (ex != null) {
+                seeded.completeExceptionally(ex);
+            } else {
+                seeded.complete(null);
+            }
+        });
+    }
+
+    /**
+     * Completes once seeding has finished, for callers that need the seed data to exist.
+     */
+    public CompletableFuture<Void> seeded() {
+        return seeded;
+    }
+
+    private void seed() {
         // Ensure there is at least one ADMIN user
         userService.createAdminIfNotExists();
 
         if (doctorRepository.count() == 0) {
-            doctorRepository.save(Doctor.builder()
+            doctorService.createDoctor(Doctor.builder()
                     .name("Dr. Alice Smith")
                     .specialization("Cardiology")
                     .build());
-            doctorRepository.save(Doctor.builder()
+            doctorService.createDoctor(Doctor.builder()
                     .name("Dr. Bob Johnson")
                     .specialization("Dermatology")
                     .build());
         }
     }
 }
-
@@ -0,0 +1,36 @@
+package com.mediconnect.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes {@code application.first.request.time} next to Spring Boot's
+ * {@code application.started.time} and {@code application.ready.time}: the JVM uptime at which
+ * the first request was handled, which is what clients of a restarting instance actually wait for.
+ */
+@Component
+@RequiredArgsConstructor
+public class FirstRequestTimeMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (recorded.get() || !recorded.compareAndSet(false, true)) {
+            return;
+        }
+        long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        TimeGauge.builder("application.first.request.time", () -> uptimeMs, TimeUnit.MILLISECONDS)
+                .description("Time from JVM start until the first request was handled")
+                .register(meterRegistry);
+    }
+}
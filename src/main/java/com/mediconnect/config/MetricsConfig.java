@@ -0,0 +1,71 @@
+package com.mediconnect.config;
+
+import com.mediconnect.security.JwtService;
+import com.mediconnect.security.RateLimitFilter;
+import com.mediconnect.security.RateLimiter;
+import com.mediconnect.security.VerifiedTokenCache;
+import com.mediconnect.service.AppointmentJournal;
+import com.mediconnect.service.AppointmentStreamRegistry;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on service methods
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // Same meter names as Micrometer's cache binders, so dashboards treat it like any other cache
+    @Bean
+    public MeterBinder jwtTokenCacheMetrics(JwtService jwtService) {
+        return registry -> {
+            VerifiedTokenCache cache = jwtService.getTokenCache();
+            String name = "jwt-verified-tokens";
+            FunctionCounter.builder("cache.gets", cache, VerifiedTokenCache::getHits)
+                    .tags("cache", name, "result", "hit").register(registry);
+            FunctionCounter.builder("cache.gets", cache, VerifiedTokenCache::getMisses)
+                    .tags("cache", name, "result", "miss").register(registry);
+            FunctionCounter.builder("cache.evictions", cache, VerifiedTokenCache::getEvictions)
+                    .tag("cache", name).register(registry);
+            Gauge.builder("cache.size", cache, VerifiedTokenCache::getSize)
+                    .tag("cache", name).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder appointmentStreamMetrics(AppointmentStreamRegistry streamRegistry) {
+        return registry -> Gauge.builder("appointments.stream.connections", streamRegistry,
+                        AppointmentStreamRegistry::getConnectionCount)
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder rateLimiterMetrics(RateLimitFilter rateLimitFilter) {
+        return registry -> {
+            RateLimiter limiter = rateLimitFilter.getRateLimiter();
+            Gauge.builder("rate.limit.buckets", limiter, RateLimiter::getSize).register(registry);
+            FunctionCounter.builder("rate.limit.evictions", limiter, RateLimiter::getEvictions).register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder appointmentJournalMetrics(AppointmentJournal journal) {
+        return registry -> {
+            Gauge.builder("appointments.journal.pending", journal, AppointmentJournal::getPending).register(registry);
+            FunctionCounter.builder("appointments.journal.records", journal, AppointmentJournal::getWritten)
+                    .register(registry);
+            FunctionCounter.builder("appointments.journal.failures", journal, AppointmentJournal::getFailures)
+                    .register(registry);
+            FunctionCounter.builder("appointments.journal.dropped", journal, AppointmentJournal::getDropped)
+                    .register(registry);
+        };
+    }
+}
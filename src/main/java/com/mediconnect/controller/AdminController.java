@@ -2,14 +2,25 @@ package com.mediconnect.controller;
 
 import com.mediconnect.dto.AdminAppointmentDto;
 import com.mediconnect.dto.AdminStatsDto;
+import com.mediconnect.dto.AppointmentTransitionDto;
+import com.mediconnect.dto.BatchStatusUpdateRequest;
+import com.mediconnect.dto.CursorPage;
 import com.mediconnect.dto.UpdateAppointmentStatusRequest;
 import com.mediconnect.model.AppointmentStatus;
+import com.mediconnect.querybudget.QueryBudget;
 import com.mediconnect.service.AdminService;
+import com.mediconnect.service.AppointmentJournal;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,20 +29,63 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final StreamingResponses streamingResponses;
+    private final AppointmentJournal appointmentJournal;
 
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(max = 2)
     @GetMapping("/stats")
     public ResponseEntity<AdminStatsDto> getStats() {
         return ResponseEntity.ok(adminService.getStats());
     }
 
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(max = 3)
     @GetMapping("/appointments")
-    public ResponseEntity<List<AdminAppointmentDto>> getAppointments() {
-        return ResponseEntity.ok(adminService.getAllAppointments());
+    public ResponseEntity<CursorPage<AdminAppointmentDto>> getAppointments(
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(adminService.getAppointments(status, from, to, cursor, limit));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(max = 3)
+    @GetMapping("/appointments/search")
+    public ResponseEntity<CursorPage<AdminAppointmentDto>> searchAppointments(
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String patientName,
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(adminService.searchAppointments(doctorId, patientName, status, from, to, cursor, limit));
+    }
+
+    // Every matching appointment as one array, streamed instead of paged
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/appointments/export")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+        return streamingResponses.array(request, AdminAppointmentDto.class,
+                sink -> adminService.exportAppointments(status, from, to, sink));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/appointments/{id}/transitions")
+    public ResponseEntity<List<AppointmentTransitionDto>> getTransitions(@PathVariable Long id,
+                                                                         @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(appointmentJournal.recentTransitions(id, limit));
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(max = 5)
     @PatchMapping("/appointments/{id}/status")
     public ResponseEntity<Void> updateStatus(@PathVariable Long id,
                                              @RequestBody UpdateAppointmentStatusRequest request) {
@@ -42,5 +96,12 @@ public class AdminController {
         adminService.updateAppointmentStatus(id, status);
         return ResponseEntity.noContent().build();
     }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/appointments/status")
+    public ResponseEntity<Void> updateStatuses(@Valid @RequestBody BatchStatusUpdateRequest request) {
+        adminService.updateAppointmentStatuses(request.getUpdates());
+        return ResponseEntity.noContent().build();
+    }
 }
 
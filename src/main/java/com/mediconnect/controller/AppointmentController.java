@@ -2,12 +2,21 @@ package com.mediconnect.controller;
 
 import com.mediconnect.dto.AppointmentRequestDto;
 import com.mediconnect.dto.AppointmentResponseDto;
+import com.mediconnect.dto.BatchBookingRequest;
+import com.mediconnect.dto.CursorPage;
+import com.mediconnect.querybudget.QueryBudget;
 import com.mediconnect.service.AppointmentService;
+import com.mediconnect.service.AppointmentStreamRegistry;
+import com.mediconnect.service.IdempotencyStore;
+import com.mediconnect.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -17,17 +26,44 @@ import java.util.List;
 public class AppointmentController {
 
     private final AppointmentService appointmentService;
+    private final IdempotencyStore idempotencyStore;
+    private final AppointmentStreamRegistry streamRegistry;
+    private final UserService userService;
 
     @PreAuthorize("hasRole('PATIENT')")
+    @QueryBudget(max = 10)
     @PostMapping
-    public ResponseEntity<AppointmentResponseDto> book(@Valid @RequestBody AppointmentRequestDto request) {
-        return ResponseEntity.ok(appointmentService.bookAppointment(request));
+    public ResponseEntity<AppointmentResponseDto> book(@Valid @RequestBody AppointmentRequestDto request,
+                                                       @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                       Authentication authentication) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(appointmentService.bookAppointment(request));
+        }
+        String fingerprint = request.getDoctorId() + "|" + request.getAppointmentTime();
+        return ResponseEntity.ok(idempotencyStore.execute(authentication.getName(), idempotencyKey, fingerprint,
+                AppointmentResponseDto.class, () -> appointmentService.bookAppointment(request)));
     }
 
     @PreAuthorize("hasRole('PATIENT')")
+    @PostMapping("/batch")
+    public ResponseEntity<List<AppointmentResponseDto>> bookBatch(@Valid @RequestBody BatchBookingRequest request) {
+        return ResponseEntity.ok(appointmentService.bookAppointments(request.getAppointments()));
+    }
+
+    @PreAuthorize("hasRole('PATIENT')")
+    // The past view reads appointments_history as well
+    @QueryBudget(max = 4)
     @GetMapping("/me")
-    public ResponseEntity<List<AppointmentResponseDto>> myAppointments() {
-        return ResponseEntity.ok(appointmentService.getAppointmentsForCurrentPatient());
+    public ResponseEntity<CursorPage<AppointmentResponseDto>> myAppointments(
+            @RequestParam(defaultValue = "upcoming") String view,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(appointmentService.getAppointmentsForCurrentPatient(view, cursor, limit));
     }
-}
 
+    @PreAuthorize("hasRole('PATIENT')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return streamRegistry.subscribe(userService.getByUsername(authentication.getName()).getId());
+    }
+}
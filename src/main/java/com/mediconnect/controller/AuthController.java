@@ -2,12 +2,16 @@ package com.mediconnect.controller;
 
 import com.mediconnect.dto.AuthDtos;
 import com.mediconnect.model.User;
+import com.mediconnect.querybudget.QueryBudget;
 import com.mediconnect.security.JwtService;
+import com.mediconnect.security.TokenVersionRegistry;
 import com.mediconnect.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -18,22 +22,36 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserService userService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
+    @QueryBudget(max = 3)
     @PostMapping("/login")
     public ResponseEntity<AuthDtos.LoginResponse> login(@RequestBody AuthDtos.LoginRequest request) {
         var authToken = new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword());
         authenticationManager.authenticate(authToken);
 
         User user = userService.getByUsername(request.getUsername());
-        String token = jwtService.generateToken(user.getUsername(), user.getRole().name());
+        // The cached user may lag a revocation made on another instance; issue the version tokens are checked against
+        Integer tokenVersion = tokenVersionRegistry.currentVersion(user.getUsername());
+        String token = jwtService.generateToken(user.getUsername(), user.getRole().name(),
+                tokenVersion != null ? tokenVersion : user.getTokenVersion());
 
         return ResponseEntity.ok(new AuthDtos.LoginResponse(token, user.getRole().name(), user.getUsername()));
     }
 
+    @QueryBudget(max = 2)
     @PostMapping("/register")
     public ResponseEntity<String> register(@RequestBody AuthDtos.RegisterRequest request) {
         userService.registerPatient(request.getUsername(), request.getFullName(), request.getPassword());
         return ResponseEntity.ok("User registered successfully");
     }
+
+    @PreAuthorize("isAuthenticated()")
+    @QueryBudget(max = 4)
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication) {
+        userService.revokeTokens(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
 }
 
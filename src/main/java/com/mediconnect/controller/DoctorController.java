@@ -1,37 +1,66 @@
 package com.mediconnect.controller;
 
+import com.mediconnect.dto.DoctorAvailabilityDto;
 import com.mediconnect.dto.DoctorDto;
 import com.mediconnect.model.Doctor;
-import com.mediconnect.repository.DoctorRepository;
+import com.mediconnect.querybudget.QueryBudget;
+import com.mediconnect.service.DoctorAvailabilityIndex;
+import com.mediconnect.service.DoctorDirectory;
+import com.mediconnect.service.DoctorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/doctors")
 @RequiredArgsConstructor
 public class DoctorController {
 
-    private final DoctorRepository doctorRepository;
+    private final DoctorService doctorService;
+    private final DoctorDirectory doctorDirectory;
+    private final DoctorAvailabilityIndex availabilityIndex;
 
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(max = 3)
     @PostMapping
     public ResponseEntity<DoctorDto> createDoctor(@Valid @RequestBody Doctor doctor) {
-        Doctor saved = doctorRepository.save(doctor);
+        Doctor saved = doctorService.createDoctor(doctor);
         return ResponseEntity.ok(new DoctorDto(saved.getId(), saved.getName(), saved.getSpecialization()));
     }
 
+    @QueryBudget(max = 2)
     @GetMapping
-    public ResponseEntity<List<DoctorDto>> getDoctors() {
-        List<DoctorDto> doctors = doctorRepository.findAll().stream()
-                .map(d -> new DoctorDto(d.getId(), d.getName(), d.getSpecialization()))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(doctors);
+    public ResponseEntity<List<DoctorDto>> getDoctors(@RequestParam(required = false) String specialization,
+                                                      WebRequest webRequest) {
+        DoctorDirectory.Listing listing = doctorDirectory.find(specialization);
+        if (webRequest.checkNotModified(listing.getEtag())) {
+            return null;
+        }
+        // The ETag is shared by the JSON and binary representations, so caches must key on Accept too
+        return ResponseEntity.ok()
+                .eTag(listing.getEtag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache())
+                .body(listing.getDoctors());
     }
-}
 
+    @QueryBudget(max = 2)
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<DoctorAvailabilityDto> getAvailability(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusWeeks(2);
+        return ResponseEntity.ok(availabilityIndex.availability(id, start, end));
+    }
+}
@@ -0,0 +1,97 @@
+package com.mediconnect.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Writes large arrays straight to the response in JSON, CBOR or Smile, whichever the client
+ * accepts, using the same ObjectMappers as the regular message converters. Elements are
+ * serialized as the source produces them, so the array never exists in memory as a whole.
+ */
+@Component
+public class StreamingResponses {
+
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+    private final List<MediaType> producibleTypes;
+    private final ContentNegotiationManager contentNegotiationManager;
+
+    public StreamingResponses(HttpMessageConverters messageConverters,
+                              ContentNegotiationManager contentNegotiationManager) {
+        // Registration order, so JSON wins for Accept: */*
+        this.converters = messageConverters.getConverters().stream()
+                .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                .map(AbstractJackson2HttpMessageConverter.class::cast)
+                .toList();
+        this.producibleTypes = converters.stream()
+                .flatMap(converter -> converter.getSupportedMediaTypes().stream())
+                .filter(mediaType -> !mediaType.isWildcardSubtype() && !mediaType.getSubtype().startsWith("*+"))
+                .distinct()
+                .toList();
+        this.contentNegotiationManager = contentNegotiationManager;
+    }
+
+    @FunctionalInterface
+    public interface Source<T> {
+        void forEach(Consumer<? super T> sink);
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> array(NativeWebRequest request, Class<T> elementType, Source<T> source)
+            throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> requested = new ArrayList<>(contentNegotiationManager.resolveMediaTypes(request));
+        MimeTypeUtils.sortBySpecificity(requested);
+        for (MediaType accepted : requested) {
+            for (MediaType producible : producibleTypes) {
+                if (accepted.isCompatibleWith(producible)) {
+                    return ResponseEntity.ok()
+                            .contentType(producible)
+                            .body(body(converterFor(producible), elementType, source));
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(producibleTypes);
+    }
+
+    private AbstractJackson2HttpMessageConverter converterFor(MediaType mediaType) {
+        return converters.stream()
+                .filter(converter -> converter.getSupportedMediaTypes().contains(mediaType))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static <T> StreamingResponseBody body(AbstractJackson2HttpMessageConverter converter,
+                                                  Class<T> elementType, Source<T> source) {
+        // Flushing after every element would send each one as its own chunk
+        ObjectWriter writer = converter.getObjectMapper().writerFor(elementType)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                source.forEach(element -> {
+                    try {
+                        writer.writeValue(generator, element);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+}
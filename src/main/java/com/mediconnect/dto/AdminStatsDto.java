@@ -1,8 +1,11 @@
 package com.mediconnect.dto;
 
+import com.mediconnect.model.AppointmentStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import java.util.Map;
+
 @Data
 @AllArgsConstructor
 public class AdminStatsDto {
@@ -10,5 +13,6 @@ public class AdminStatsDto {
     private long totalDoctors;
     private long totalAppointments;
     private long appointmentsToday;
+    private Map<AppointmentStatus, Long> appointmentsByStatus;
 }
 
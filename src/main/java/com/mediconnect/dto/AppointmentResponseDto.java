@@ -3,10 +3,12 @@ package com.mediconnect.dto;
 import com.mediconnect.model.AppointmentStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class AppointmentResponseDto {
     private Long id;
@@ -0,0 +1,18 @@
+package com.mediconnect.dto;
+
+import com.mediconnect.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// The columns a status transition needs, read without loading the appointment entity
+@Data
+@AllArgsConstructor
+public class AppointmentStateDto {
+    private Long id;
+    private Long doctorId;
+    private Long patientId;
+    private LocalDateTime appointmentTime;
+    private AppointmentStatus status;
+}
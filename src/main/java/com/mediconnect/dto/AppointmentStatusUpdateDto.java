@@ -0,0 +1,17 @@
+package com.mediconnect.dto;
+
+import com.mediconnect.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AppointmentStatusUpdateDto {
+    private Long appointmentId;
+    private Long doctorId;
+    private LocalDateTime appointmentTime;
+    private AppointmentStatus previousStatus;
+    private AppointmentStatus status;
+}
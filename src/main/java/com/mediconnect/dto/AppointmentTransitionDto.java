@@ -0,0 +1,19 @@
+package com.mediconnect.dto;
+
+import com.mediconnect.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AppointmentTransitionDto {
+    private long sequence;
+    private LocalDateTime recordedAt;
+    private Long actorId;
+    private String actorUsername;
+    // Null for the booking itself
+    private AppointmentStatus fromStatus;
+    private AppointmentStatus toStatus;
+}
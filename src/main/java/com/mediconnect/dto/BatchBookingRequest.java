@@ -0,0 +1,17 @@
+package com.mediconnect.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchBookingRequest {
+
+    @NotEmpty
+    @Size(max = 50)
+    @Valid
+    private List<AppointmentRequestDto> appointments;
+}
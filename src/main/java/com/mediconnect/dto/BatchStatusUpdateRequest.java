@@ -0,0 +1,32 @@
+package com.mediconnect.dto;
+
+import com.mediconnect.model.AppointmentStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class BatchStatusUpdateRequest {
+
+    @NotEmpty
+    @Size(max = 500)
+    @Valid
+    private List<Item> updates;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        @NotNull
+        private Long id;
+
+        @NotNull
+        private AppointmentStatus status;
+    }
+}
@@ -0,0 +1,14 @@
+package com.mediconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    // Opaque token for the next page; null once the last page has been returned
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.mediconnect.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class DoctorAvailabilityDto {
+    private Long doctorId;
+    private int slotMinutes;
+    private List<Day> days;
+
+    @Data
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private int booked;
+        private boolean full;
+        private List<LocalTime> freeSlots;
+    }
+}
@@ -0,0 +1,17 @@
+package com.mediconnect.event;
+
+import com.mediconnect.model.AppointmentStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class AppointmentBookedEvent {
+    Long appointmentId;
+    Long doctorId;
+    Long patientId;
+    LocalDateTime appointmentTime;
+    AppointmentStatus status;
+    // User who made the change; null when there was no authenticated user
+    Long actorId;
+}
@@ -0,0 +1,18 @@
+package com.mediconnect.event;
+
+import com.mediconnect.model.AppointmentStatus;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class AppointmentStatusChangedEvent {
+    Long appointmentId;
+    Long doctorId;
+    Long patientId;
+    LocalDateTime appointmentTime;
+    AppointmentStatus previousStatus;
+    AppointmentStatus status;
+    // User who made the change; null when there was no authenticated user
+    Long actorId;
+}
@@ -0,0 +1,10 @@
+package com.mediconnect.event;
+
+import lombok.Value;
+
+@Value
+public class DoctorCreatedEvent {
+    Long doctorId;
+    String name;
+    String specialization;
+}
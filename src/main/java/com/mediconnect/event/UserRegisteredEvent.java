@@ -0,0 +1,11 @@
+package com.mediconnect.event;
+
+import com.mediconnect.model.Role;
+import lombok.Value;
+
+@Value
+public class UserRegisteredEvent {
+    Long userId;
+    String username;
+    Role role;
+}
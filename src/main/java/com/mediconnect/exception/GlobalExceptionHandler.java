@@ -1,6 +1,8 @@
 package com.mediconnect.exception;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -16,6 +18,9 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Value("${auth.password.retry-after-seconds:1}")
+    private long passwordHashingRetryAfterSeconds;
+
     @ExceptionHandler(DoctorOverloadedException.class)
     public ResponseEntity<Map<String, Object>> handleDoctorOverloaded(DoctorOverloadedException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -25,6 +30,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handlePasswordHashingOverloaded(PasswordHashingOverloadedException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        body.put("details", "Password hashing capacity is exhausted");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHashingRetryAfterSeconds))
+                .body(body);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleIllegalArgument(IllegalArgumentException ex) {
         Map<String, Object> body = new HashMap<>();
@@ -65,6 +81,16 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
     }
 
+    // Only raised with query-budget.mode=fail, i.e. in tests
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleQueryBudgetExceeded(QueryBudgetExceededException ex) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        body.put("details", String.join("; ", ex.getStatements()));
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+    }
+
     private String formatFieldError(FieldError error) {
         return error.getField() + ": " + error.getDefaultMessage();
     }
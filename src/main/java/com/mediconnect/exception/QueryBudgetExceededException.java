@@ -0,0 +1,16 @@
+package com.mediconnect.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class QueryBudgetExceededException extends RuntimeException {
+
+    private final List<String> statements;
+
+    public QueryBudgetExceededException(String message, List<String> statements) {
+        super(message);
+        this.statements = List.copyOf(statements);
+    }
+}
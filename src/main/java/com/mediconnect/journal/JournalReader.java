@@ -0,0 +1,211 @@
+package com.mediconnect.journal;
+
+import com.mediconnect.model.AppointmentStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Read side of the journal, safe to use while a writer is appending: a record only becomes
+ * visible once its CRC has been written. Also runnable on its own to dump or replay a journal
+ * directory, e.g. from a backup:
+ * <pre>
+ * java -cp target/classes com.mediconnect.journal.JournalReader /var/lib/mediconnect/journal [--appointment=42] [--state]
+ * </pre>
+ */
+public final class JournalReader {
+
+    private static final String SEGMENT_PREFIX = "transitions-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final int APPOINTMENT_ID_OFFSET = 16;
+    private static final int CHUNK_RECORDS = 1024;
+
+    private JournalReader() {
+    }
+
+    /**
+     * Passes every valid record to {@code consumer} in sequence order and returns how many there were.
+     * Each segment is read up to its first invalid record.
+     */
+    public static long replay(Path directory, Consumer<TransitionRecord> consumer) throws IOException {
+        long count = 0;
+        ByteBuffer chunk = newChunk();
+        for (Path segment : segments(directory)) {
+            try (FileChannel channel = open(segment)) {
+                if (channel == null) {
+                    continue;
+                }
+                long records = channel.size() / TransitionRecord.SIZE;
+                chunks:
+                for (long first = 0; first < records; first += CHUNK_RECORDS) {
+                    int read = read(channel, chunk, first, (int) Math.min(CHUNK_RECORDS, records - first));
+                    for (int i = 0; i < read; i++) {
+                        TransitionRecord record = TransitionRecord.readFrom(chunk, i * TransitionRecord.SIZE);
+                        if (record == null) {
+                            break chunks;
+                        }
+                        consumer.accept(record);
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The latest {@code limit} transitions of one appointment, newest first. Segments are scanned
+     * from the newest backwards, comparing only the appointment id until a record matches. The scan
+     * ends at the appointment's booking, since nothing about it can be older.
+     */
+    public static List<TransitionRecord> findRecent(Path directory, long appointmentId, int limit) throws IOException {
+        List<TransitionRecord> found = new ArrayList<>();
+        ByteBuffer chunk = newChunk();
+        List<Path> segments = segments(directory);
+        for (int s = segments.size() - 1; s >= 0; s--) {
+            try (FileChannel channel = open(segments.get(s))) {
+                if (channel == null) {
+                    continue;
+                }
+                for (long end = channel.size() / TransitionRecord.SIZE; end > 0; end -= CHUNK_RECORDS) {
+                    long first = Math.max(0, end - CHUNK_RECORDS);
+                    int read = read(channel, chunk, first, (int) (end - first));
+                    for (int i = read - 1; i >= 0; i--) {
+                        int offset = i * TransitionRecord.SIZE;
+                        if (chunk.getLong(offset + APPOINTMENT_ID_OFFSET) != appointmentId) {
+                            continue;
+                        }
+                        TransitionRecord record = TransitionRecord.readFrom(chunk, offset);
+                        if (record == null) {
+                            continue;
+                        }
+                        found.add(record);
+                        if (found.size() == limit || record.fromStatus() == null) {
+                            return found;
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        // Zero-padded sequence numbers make name order sequence order
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static int validRecords(ByteBuffer buffer, int records) {
+        int valid = 0;
+        while (valid < records && TransitionRecord.readFrom(buffer, valid * TransitionRecord.SIZE) != null) {
+            valid++;
+        }
+        return valid;
+    }
+
+    // Segments are read through the channel rather than mapped, since a mapping is only released
+    // when the buffer is garbage collected
+    private static ByteBuffer newChunk() {
+        return ByteBuffer.allocate(CHUNK_RECORDS * TransitionRecord.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Null when the segment was deleted by the retention policy after it was listed
+    private static FileChannel open(Path segment) throws IOException {
+        try {
+            return FileChannel.open(segment, StandardOpenOption.READ);
+        } catch (NoSuchFileException ex) {
+            return null;
+        }
+    }
+
+    // Reads records [first, first + count) into the start of the chunk and returns how many were read
+    private static int read(FileChannel channel, ByteBuffer chunk, long first, int count) throws IOException {
+        chunk.clear().limit(count * TransitionRecord.SIZE);
+        long position = first * TransitionRecord.SIZE;
+        while (chunk.hasRemaining()) {
+            int read = channel.read(chunk, position + chunk.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        chunk.flip();
+        return chunk.limit() / TransitionRecord.SIZE;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: JournalReader <directory> [--appointment=<id>] [--state]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        Long appointmentId = null;
+        boolean state = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith("--appointment=")) {
+                appointmentId = Long.parseLong(args[i].substring("--appointment=".length()));
+            } else if (args[i].equals("--state")) {
+                state = true;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        Long filter = appointmentId;
+        // --state replays the transitions into each appointment's latest status instead of listing them
+        Map<Long, AppointmentStatus> latest = new LinkedHashMap<>();
+        boolean replayState = state;
+        long[] expected = {0};
+        long total = replay(directory, record -> {
+            // A gap means records failed their CRC check, e.g. after a torn write
+            if (expected[0] != 0 && record.sequence() != expected[0]) {
+                System.err.println("Missing records " + expected[0] + ".." + (record.sequence() - 1));
+            }
+            expected[0] = record.sequence() + 1;
+            if (filter != null && record.appointmentId() != filter) {
+                return;
+            }
+            if (replayState) {
+                latest.put(record.appointmentId(), record.toStatus());
+            } else {
+                System.out.printf("%d %s appointment=%d doctor=%d patient=%d time=%s actor=%s %s -> %s%n",
+                        record.sequence(), record.recordedAt(), record.appointmentId(), record.doctorId(),
+                        record.patientId(), record.appointmentTime(),
+                        record.actorId() != null ? record.actorId() : "-",
+                        record.fromStatus() != null ? record.fromStatus() : "NEW", record.toStatus());
+            }
+        });
+        latest.forEach((id, status) -> System.out.println("appointment=" + id + " status=" + status));
+        System.err.println(total + " records in " + segments(directory).size() + " segments");
+    }
+}
@@ -0,0 +1,124 @@
+package com.mediconnect.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Append side of the journal. Records go into memory-mapped segment files holding a fixed
+ * number of records each; a full segment is forced to disk and a new one is started. On open,
+ * the last segment is scanned to find where the valid records end, and appending resumes there.
+ * <p>
+ * Not thread-safe: the journal has exactly one writer thread.
+ */
+public class JournalWriter implements Closeable {
+
+    private final Path directory;
+    private final int recordsPerSegment;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentRecords;
+    private int position;
+    private long nextSequence;
+
+    public JournalWriter(Path directory, int recordsPerSegment) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        Files.createDirectories(directory);
+
+        List<Path> segments = JournalReader.segments(directory);
+        if (segments.isEmpty()) {
+            openSegment(1);
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        long firstSequence = JournalReader.firstSequence(last);
+        // An existing segment keeps the size it was created with
+        channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < TransitionRecord.SIZE) {
+            // Created but never mapped before a crash
+            channel.close();
+            Files.delete(last);
+            openSegment(firstSequence);
+            return;
+        }
+        segmentRecords = (int) (channel.size() / TransitionRecord.SIZE);
+        segment = map(channel, segmentRecords);
+        position = JournalReader.validRecords(segment, segmentRecords);
+        nextSequence = firstSequence + position;
+    }
+
+    public long getNextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * Appends a record, which must carry {@link #getNextSequence()} as its sequence.
+     */
+    public void append(TransitionRecord record) throws IOException {
+        if (record.sequence() != nextSequence) {
+            throw new IllegalArgumentException("Expected sequence " + nextSequence + " but got " + record.sequence());
+        }
+        if (position == segmentRecords) {
+            segment.force();
+            channel.close();
+            openSegment(nextSequence);
+        }
+        record.writeTo(segment, position * TransitionRecord.SIZE);
+        position++;
+        nextSequence++;
+    }
+
+    /**
+     * Flushes written records from the page cache to disk.
+     */
+    public void force() {
+        segment.force();
+    }
+
+    /**
+     * Deletes the full segments last written before {@code cutoff}, oldest first, and returns how
+     * many were deleted. The segment being appended to is always kept.
+     */
+    public int deleteSegmentsBefore(Instant cutoff) throws IOException {
+        List<Path> segments = JournalReader.segments(directory);
+        int deleted = 0;
+        for (Path path : segments.subList(0, Math.max(0, segments.size() - 1))) {
+            if (!Files.getLastModifiedTime(path).toInstant().isBefore(cutoff)) {
+                break;
+            }
+            Files.delete(path);
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(JournalReader.segmentName(firstSequence));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segmentRecords = recordsPerSegment;
+        segment = map(channel, segmentRecords);
+        position = 0;
+        nextSequence = firstSequence;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int records) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) records * TransitionRecord.SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+}
@@ -0,0 +1,112 @@
+package com.mediconnect.journal;
+
+import com.mediconnect.model.AppointmentStatus;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * One appointment state transition as stored in the journal: a fixed 64-byte little-endian
+ * record whose last four bytes are a CRC32C of the first 60.
+ * <pre>
+ *  0  sequence         long   position in the journal, starting at 1
+ *  8  recordedAt       long   epoch millis
+ * 16  appointmentId    long
+ * 24  doctorId         long
+ * 32  patientId        long
+ * 40  appointmentTime  long   local date-time as epoch seconds at UTC
+ * 48  actorId          long   user who made the change, 0 if unknown
+ * 56  fromStatus       byte   status code, -1 for a new booking
+ * 57  toStatus         byte   status code
+ * 58  reserved         short
+ * 60  crc              int
+ * </pre>
+ * A region that was never written is all zeros, which never passes the CRC check. Status codes
+ * are fixed per status rather than taken from the enum's ordinals, so reordering or adding
+ * statuses does not change what existing records mean.
+ */
+public record TransitionRecord(long sequence,
+                               Instant recordedAt,
+                               long appointmentId,
+                               long doctorId,
+                               long patientId,
+                               LocalDateTime appointmentTime,
+                               Long actorId,
+                               AppointmentStatus fromStatus,
+                               AppointmentStatus toStatus) {
+
+    public static final int SIZE = 64;
+    private static final int CRC_OFFSET = 60;
+    private static final byte NO_STATUS = -1;
+
+    public TransitionRecord withSequence(long sequence) {
+        return new TransitionRecord(sequence, recordedAt, appointmentId, doctorId, patientId,
+                appointmentTime, actorId, fromStatus, toStatus);
+    }
+
+    /**
+     * Writes this record at {@code offset} of a little-endian buffer. The CRC goes last, so a
+     * record cut short by a crash reads back as invalid rather than as garbage.
+     */
+    public void writeTo(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, recordedAt.toEpochMilli());
+        buffer.putLong(offset + 16, appointmentId);
+        buffer.putLong(offset + 24, doctorId);
+        buffer.putLong(offset + 32, patientId);
+        buffer.putLong(offset + 40, appointmentTime.toEpochSecond(ZoneOffset.UTC));
+        buffer.putLong(offset + 48, actorId != null ? actorId : 0);
+        buffer.put(offset + 56, fromStatus != null ? code(fromStatus) : NO_STATUS);
+        buffer.put(offset + 57, code(toStatus));
+        buffer.putShort(offset + 58, (short) 0);
+        buffer.putInt(offset + CRC_OFFSET, crc(buffer, offset));
+    }
+
+    /**
+     * Reads the record at {@code offset}, or returns null if its CRC does not match.
+     */
+    public static TransitionRecord readFrom(ByteBuffer buffer, int offset) {
+        if (buffer.getInt(offset + CRC_OFFSET) != crc(buffer, offset)) {
+            return null;
+        }
+        long actorId = buffer.getLong(offset + 48);
+        byte fromStatus = buffer.get(offset + 56);
+        return new TransitionRecord(
+                buffer.getLong(offset),
+                Instant.ofEpochMilli(buffer.getLong(offset + 8)),
+                buffer.getLong(offset + 16),
+                buffer.getLong(offset + 24),
+                buffer.getLong(offset + 32),
+                LocalDateTime.ofEpochSecond(buffer.getLong(offset + 40), 0, ZoneOffset.UTC),
+                actorId != 0 ? actorId : null,
+                fromStatus != NO_STATUS ? status(fromStatus) : null,
+                status(buffer.get(offset + 57)));
+    }
+
+    // Codes already written must never be reused for another status
+    static byte code(AppointmentStatus status) {
+        return switch (status) {
+            case PENDING -> 0;
+            case CONFIRMED -> 1;
+            case CANCELLED -> 2;
+        };
+    }
+
+    static AppointmentStatus status(byte code) {
+        return switch (code) {
+            case 0 -> AppointmentStatus.PENDING;
+            case 1 -> AppointmentStatus.CONFIRMED;
+            case 2 -> AppointmentStatus.CANCELLED;
+            default -> throw new IllegalStateException("Unknown appointment status code in journal: " + code);
+        };
+    }
+
+    private static int crc(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+}
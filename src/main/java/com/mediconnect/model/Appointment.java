@@ -5,26 +5,41 @@ import jakarta.validation.constraints.Future;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_time_id", columnList = "appointment_time, id"),
+        @Index(name = "idx_appointments_doctor_time", columnList = "doctor_id, appointment_time"),
+        @Index(name = "idx_appointments_patient_time", columnList = "patient_id, appointment_time"),
+        @Index(name = "idx_appointments_status_time", columnList = "status, appointment_time")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Appointment {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // A pooled sequence (instead of IDENTITY) lets Hibernate batch appointment inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Doctor doctor;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User patient;
 
     @Future(message = "Appointment time must be in the future")
@@ -0,0 +1,44 @@
+package com.mediconnect.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Past appointment moved out of the hot {@code appointments} table by the archiver.
+ * Rows keep their original id; doctor and patient are plain ids so archiving needs no joins.
+ */
+@Entity
+@Table(name = "appointments_history", indexes = {
+        @Index(name = "idx_appointments_history_patient_time", columnList = "patient_id, appointment_time"),
+        @Index(name = "idx_appointments_history_doctor_time", columnList = "doctor_id, appointment_time")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentHistory {
+
+    @Id
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(nullable = false)
+    private LocalDateTime appointmentTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
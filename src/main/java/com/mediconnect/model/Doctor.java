@@ -6,9 +6,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "doctors")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "doctors")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,26 @@
+package com.mediconnect.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of active (non-cancelled) appointments a doctor holds on a given day.
+ * Incremented with a conditional update so the daily cap holds under concurrent bookings.
+ */
+@Entity
+@Table(name = "doctor_day_capacity")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoctorDayCapacity {
+
+    @EmbeddedId
+    private DoctorDayKey id;
+
+    @Column(nullable = false)
+    private int booked;
+}
@@ -0,0 +1,36 @@
+package com.mediconnect.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request made with an {@code Idempotency-Key} header. The row is inserted in the same
+ * transaction as the operation it guards, and the primary key makes a duplicate wait for that
+ * transaction, on whichever instance it runs. The stored response is what a retry replays.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    @EmbeddedId
+    private IdempotencyRecordKey id;
+
+    @Column(nullable = false)
+    private String fingerprint;
+
+    // JSON; null only while the inserting transaction is still running
+    @Lob
+    private String response;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
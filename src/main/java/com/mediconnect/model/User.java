@@ -6,9 +6,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_full_name", columnList = "full_name"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@NaturalIdCache(region = "users-by-username")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,6 +25,7 @@ public class User {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     @NotBlank
     private String username;
@@ -32,5 +39,10 @@ public class User {
 
     @NotBlank
     private String fullName;
+
+    // Bumped to revoke every token issued to this user so far
+    @Column(nullable = false)
+    @Builder.Default
+    private int tokenVersion = 0;
 }
 
@@ -0,0 +1,22 @@
+package com.mediconnect.querybudget;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most SQL statements a request to this endpoint may run, counted from the start of the
+ * request (authentication included) until the handler method returns. A JDBC batch counts as
+ * one statement. Checked only when {@code query-budget.mode} is {@code log} or {@code fail}.
+ * <p>
+ * Budgets should hold with cold caches, so they are usually a little above the warm count.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    int max();
+}
@@ -0,0 +1,52 @@
+package com.mediconnect.querybudget;
+
+import com.mediconnect.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks {@link QueryBudget} when the handler method returns, while the response can still be
+ * replaced by an error in {@code fail} mode. Handlers that throw are not checked.
+ */
+@Aspect
+@Component
+@Slf4j
+public class QueryBudgetAspect {
+
+    private final QueryBudgetMode mode;
+    private final SqlStatementCounter counter;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetAspect(@Value("${" + QueryBudgetConfig.MODE_PROPERTY + ":off}") QueryBudgetMode mode,
+                             SqlStatementCounter counter,
+                             MeterRegistry meterRegistry) {
+        this.mode = mode;
+        this.counter = counter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(budget)")
+    public Object enforce(ProceedingJoinPoint joinPoint, QueryBudget budget) throws Throwable {
+        Object result = joinPoint.proceed();
+        SqlStatementCounter.Scope scope = counter.current();
+        if (mode == QueryBudgetMode.OFF || scope == null || scope.getStatements() <= budget.max()) {
+            return result;
+        }
+
+        String endpoint = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        meterRegistry.counter("query.budget.exceeded", "endpoint", endpoint).increment();
+        String message = String.format("%s ran %d SQL statements (budget %d, %d rows, %d ms)",
+                endpoint, scope.getStatements(), budget.max(), scope.getRows(), scope.getElapsedMillis());
+        if (mode == QueryBudgetMode.FAIL) {
+            throw new QueryBudgetExceededException(message, scope.getSql());
+        }
+        log.warn("{}:\n  {}", message, String.join("\n  ", scope.getSql()));
+        return result;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mediconnect.querybudget;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration(proxyBeanMethods = false)
+public class QueryBudgetConfig {
+
+    static final String MODE_PROPERTY = "query-budget.mode";
+
+    @Bean
+    public static SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    // With the mode off the data source is left as it is, so production pays nothing for this
+    @Bean
+    public static BeanPostProcessor queryBudgetDataSourceProxy(Environment environment,
+                                                               ObjectProvider<SqlStatementCounter> counter) {
+        QueryBudgetMode mode = environment.getProperty(MODE_PROPERTY, QueryBudgetMode.class, QueryBudgetMode.OFF);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (mode == QueryBudgetMode.OFF || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlStatementCounter listener = counter.getObject();
+                return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(listener)
+                        .methodListener(listener)
+                        .proxyResultSet()
+                        .build();
+            }
+        };
+    }
+}
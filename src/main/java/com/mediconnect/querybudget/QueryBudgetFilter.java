@@ -0,0 +1,48 @@
+package com.mediconnect.querybudget;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens the statement-counting scope of a request. Runs ahead of the security filters, so the
+ * statements made to authenticate the request count towards the endpoint's budget.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final SqlStatementCounter counter;
+
+    public QueryBudgetFilter(@Value("${" + QueryBudgetConfig.MODE_PROPERTY + ":off}") QueryBudgetMode mode,
+                             SqlStatementCounter counter) {
+        this.enabled = mode != QueryBudgetMode.OFF;
+        this.counter = counter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        counter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            counter.close();
+        }
+    }
+}
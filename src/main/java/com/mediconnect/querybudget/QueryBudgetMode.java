@@ -0,0 +1,11 @@
+package com.mediconnect.querybudget;
+
+public enum QueryBudgetMode {
+    // No counting; the data source is not wrapped
+    OFF,
+    // Over-budget requests are logged with the statements they ran
+    LOG,
+    // Over-budget requests fail with QueryBudgetExceededException, for tests; the handler's
+    // transaction has already committed by then
+    FAIL
+}
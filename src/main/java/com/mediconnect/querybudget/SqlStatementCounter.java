@@ -0,0 +1,81 @@
+package com.mediconnect.querybudget;
+
+import lombok.Getter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counts the statements, fetched rows and statement time of the current request. Fed by the
+ * data source proxy; statements run outside an open scope (background jobs, async threads)
+ * are ignored.
+ */
+public class SqlStatementCounter implements QueryExecutionListener, MethodExecutionListener {
+
+    // Enough to spot an N+1 pattern without holding every statement of a runaway request
+    private static final int MAX_RECORDED_STATEMENTS = 50;
+
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    public Scope open() {
+        Scope scope = new Scope();
+        current.set(scope);
+        return scope;
+    }
+
+    public void close() {
+        current.remove();
+    }
+
+    public Scope current() {
+        return current.get();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Scope scope = current.get();
+        if (scope == null) {
+            return;
+        }
+        scope.statements++;
+        scope.elapsedMillis += execInfo.getElapsedTime();
+        if (scope.sql.size() < MAX_RECORDED_STATEMENTS) {
+            String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+            scope.sql.add(execInfo.isBatch() ? sql + " [batch of " + execInfo.getBatchSize() + "]" : sql);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getTarget() instanceof ResultSet
+                && executionContext.getMethod().getName().equals("next")
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            Scope scope = current.get();
+            if (scope != null) {
+                scope.rows++;
+            }
+        }
+    }
+
+    @Getter
+    public static class Scope {
+        private int statements;
+        private long rows;
+        private long elapsedMillis;
+        private final List<String> sql = new ArrayList<>();
+    }
+}
@@ -0,0 +1,37 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.dto.AppointmentResponseDto;
+import com.mediconnect.model.AppointmentHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface AppointmentHistoryRepository extends JpaRepository<AppointmentHistory, Long> {
+
+    @Modifying
+    @Query("insert into AppointmentHistory (id, doctorId, patientId, appointmentTime, status, archivedAt) " +
+           "select a.id, a.doctor.id, a.patient.id, a.appointmentTime, a.status, :archivedAt " +
+           "from Appointment a where a.id in :ids")
+    int copyFromAppointments(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Archived counterpart of AppointmentRepository.findPatientPageBefore, on (patient_id, appointment_time)
+    @Query("select new com.mediconnect.dto.AppointmentResponseDto(" +
+           "h.id, d.id, d.name, d.specialization, h.appointmentTime, h.status) " +
+           "from AppointmentHistory h join Doctor d on d.id = h.doctorId " +
+           "where h.patientId = :patientId " +
+           "and (h.appointmentTime < :beforeTime or (h.appointmentTime = :beforeTime and h.id < :beforeId)) " +
+           "order by h.appointmentTime desc, h.id desc")
+    List<AppointmentResponseDto> findPatientPageBefore(@Param("patientId") Long patientId,
+                                                       @Param("beforeTime") LocalDateTime beforeTime,
+                                                       @Param("beforeId") Long beforeId,
+                                                       Pageable pageable);
+
+    @Query("select h.status, count(h) from AppointmentHistory h group by h.status")
+    List<Object[]> countByStatus();
+}
@@ -1,24 +1,86 @@
 package com.mediconnect.repository;
 
+import com.mediconnect.dto.AppointmentResponseDto;
+import com.mediconnect.dto.AppointmentStateDto;
 import com.mediconnect.model.Appointment;
-import com.mediconnect.model.Doctor;
-import com.mediconnect.model.User;
+import com.mediconnect.model.AppointmentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentRepositoryCustom {
 
     @Query("select count(a) from Appointment a " +
-           "where a.doctor = :doctor and date(a.appointmentTime) = :day")
-    long countByDoctorAndDay(@Param("doctor") Doctor doctor, @Param("day") LocalDate day);
+           "where a.doctor.id = :doctorId and a.appointmentTime >= :from and a.appointmentTime < :to " +
+           "and a.status <> com.mediconnect.model.AppointmentStatus.CANCELLED")
+    long countActiveByDoctorBetween(@Param("doctorId") Long doctorId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
 
-    List<Appointment> findByPatientOrderByAppointmentTimeAsc(User patient);
+    // One patient's appointments strictly after (afterTime, afterId), oldest first; a range scan of
+    // (patient_id, appointment_time) that stops after the page
+    @Query("select new com.mediconnect.dto.AppointmentResponseDto(" +
+           "a.id, d.id, d.name, d.specialization, a.appointmentTime, a.status) " +
+           "from Appointment a join a.doctor d " +
+           "where a.patient.id = :patientId " +
+           "and (a.appointmentTime > :afterTime or (a.appointmentTime = :afterTime and a.id > :afterId)) " +
+           "order by a.appointmentTime asc, a.id asc")
+    List<AppointmentResponseDto> findPatientPageAfter(@Param("patientId") Long patientId,
+                                                      @Param("afterTime") LocalDateTime afterTime,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
 
-    @Query("select count(a) from Appointment a where date(a.appointmentTime) = :day")
-    long countByDay(@Param("day") LocalDate day);
-}
+    // The same scan backwards: strictly before (beforeTime, beforeId), newest first
+    @Query("select new com.mediconnect.dto.AppointmentResponseDto(" +
+           "a.id, d.id, d.name, d.specialization, a.appointmentTime, a.status) " +
+           "from Appointment a join a.doctor d " +
+           "where a.patient.id = :patientId " +
+           "and (a.appointmentTime < :beforeTime or (a.appointmentTime = :beforeTime and a.id < :beforeId)) " +
+           "order by a.appointmentTime desc, a.id desc")
+    List<AppointmentResponseDto> findPatientPageBefore(@Param("patientId") Long patientId,
+                                                       @Param("beforeTime") LocalDateTime beforeTime,
+                                                       @Param("beforeId") Long beforeId,
+                                                       Pageable pageable);
+
+    @Query("select new com.mediconnect.dto.AppointmentStateDto(" +
+           "a.id, a.doctor.id, a.patient.id, a.appointmentTime, a.status) " +
+           "from Appointment a where a.id in :ids")
+    List<AppointmentStateDto> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Appointment a set a.status = :status where a.id in :ids and a.status = :expected")
+    int updateStatusByIdInAndStatus(@Param("ids") Collection<Long> ids,
+                                    @Param("expected") AppointmentStatus expected,
+                                    @Param("status") AppointmentStatus status);
+
+    @Query("select a.status, count(a) from Appointment a group by a.status")
+    List<Object[]> countByStatus();
+
+    @Query("select cast(a.appointmentTime as LocalDate), count(a) from Appointment a " +
+           "where a.appointmentTime >= :from " +
+           "group by cast(a.appointmentTime as LocalDate)")
+    List<Object[]> countByDaySince(@Param("from") LocalDateTime from);
 
+    @Query("select a.doctor.id, a.appointmentTime from Appointment a " +
+           "where a.appointmentTime >= :from " +
+           "and a.status <> com.mediconnect.model.AppointmentStatus.CANCELLED")
+    List<Object[]> findActiveDoctorTimesFrom(@Param("from") LocalDateTime from);
+
+    @Query("select a.appointmentTime from Appointment a " +
+           "where a.doctor.id = :doctorId and a.appointmentTime >= :from " +
+           "and a.status <> com.mediconnect.model.AppointmentStatus.CANCELLED")
+    List<LocalDateTime> findActiveTimesByDoctorFrom(@Param("doctorId") Long doctorId, @Param("from") LocalDateTime from);
+
+    @Query("select a.id from Appointment a where a.appointmentTime < :before order by a.appointmentTime asc, a.id asc")
+    List<Long> findIdsBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Appointment a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
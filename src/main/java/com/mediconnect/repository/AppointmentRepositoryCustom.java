@@ -0,0 +1,33 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.dto.AdminAppointmentDto;
+import com.mediconnect.model.Appointment;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface AppointmentRepositoryCustom {
+
+    /**
+     * The first {@code limit} appointments matching {@code spec} in (appointmentTime, id) order,
+     * projected straight into DTOs. Reads one extra row to tell whether more follow, so no count
+     * query is run.
+     */
+    Slice<AdminAppointmentDto> searchSlice(Specification<Appointment> spec, int limit);
+
+    /**
+     * Every appointment matching {@code spec} in the same projection and order as
+     * {@link #searchSlice}, for exports. Rows are streamed from the database as they are consumed
+     * instead of being read all at once; the stream must be closed.
+     */
+    Stream<AdminAppointmentDto> streamAll(Specification<Appointment> spec);
+
+    /**
+     * Moves the id sequence past every id already used in {@code appointments} and
+     * {@code appointments_history}, so ids allocated from it cannot collide with rows written
+     * before the sequence existed. Never moves it backwards, so it is safe while other instances
+     * are allocating ids.
+     */
+    void advanceIdSequencePastExistingIds();
+}
@@ -0,0 +1,95 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.dto.AdminAppointmentDto;
+import com.mediconnect.model.Appointment;
+import com.mediconnect.model.Doctor;
+import com.mediconnect.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class AppointmentRepositoryCustomImpl implements AppointmentRepositoryCustom {
+
+    // The pooled optimizer hands out the block ending at the value it reads, so the value must be
+    // at least one allocation above the largest id in use
+    private static final String MYSQL_ADVANCE_ID_SEQUENCE =
+            "update appointments_seq set next_val = greatest(next_val, " +
+            "(select coalesce(max(id), 0) from appointments) + " + Appointment.ID_ALLOCATION_SIZE + ", " +
+            "(select coalesce(max(id), 0) from appointments_history) + " + Appointment.ID_ALLOCATION_SIZE + ")";
+
+    // Connector/J streams rows one at a time only for this fetch size; any other value makes it
+    // buffer the whole result unless useCursorFetch is set, which would apply to every statement
+    private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int DEFAULT_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final boolean mysql;
+    private final int streamFetchSize;
+
+    public AppointmentRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.mysql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+        this.streamFetchSize = mysql ? MYSQL_STREAMING_FETCH_SIZE : DEFAULT_FETCH_SIZE;
+    }
+
+    @Override
+    public Slice<AdminAppointmentDto> searchSlice(Specification<Appointment> spec, int limit) {
+        List<AdminAppointmentDto> rows = entityManager.createQuery(adminAppointments(spec))
+                .setMaxResults(limit + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > limit;
+        return new SliceImpl<>(hasNext ? rows.subList(0, limit) : rows, PageRequest.ofSize(limit), hasNext);
+    }
+
+    @Override
+    public Stream<AdminAppointmentDto> streamAll(Specification<Appointment> spec) {
+        return entityManager.createQuery(adminAppointments(spec))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public void advanceIdSequencePastExistingIds() {
+        // MySQL emulates the sequence with a table, which ddl-auto=update creates starting at 1 next to
+        // existing rows. The embedded H2 store of the tests, benchmarks and load tests always starts empty.
+        if (mysql) {
+            entityManager.createNativeQuery(MYSQL_ADVANCE_ID_SEQUENCE).executeUpdate();
+        }
+    }
+
+    // Appointments matching spec as DTOs in (appointmentTime, id) order
+    private CriteriaQuery<AdminAppointmentDto> adminAppointments(Specification<Appointment> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AdminAppointmentDto> query = cb.createQuery(AdminAppointmentDto.class);
+        Root<Appointment> appointment = query.from(Appointment.class);
+        Join<Appointment, Doctor> doctor = appointment.join("doctor");
+        Join<Appointment, User> patient = appointment.join("patient");
+
+        query.select(cb.construct(AdminAppointmentDto.class,
+                appointment.get("id"),
+                doctor.get("name"),
+                patient.get("fullName"),
+                appointment.get("appointmentTime"),
+                appointment.get("status")));
+        Predicate predicate = spec != null ? spec.toPredicate(appointment, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(appointment.get("appointmentTime")), cb.asc(appointment.get("id")));
+        return query;
+    }
+}
@@ -0,0 +1,70 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.dto.AppointmentCursor;
+import com.mediconnect.model.Appointment;
+import com.mediconnect.model.AppointmentStatus;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filters for the admin appointment search. Each factory returns null for a missing value,
+ * so {@link Specification#and} leaves that filter out of the query entirely instead of
+ * adding an {@code :param is null or ...} branch that keeps the database from using an index.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    public static Specification<Appointment> hasStatus(AppointmentStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Appointment> hasDoctor(Long doctorId) {
+        return doctorId == null ? null : (root, query, cb) -> cb.equal(root.get("doctor").get("id"), doctorId);
+    }
+
+    // A prefix match, so users(full_name) can be range-scanned; case follows the column's collation
+    public static Specification<Appointment> patientNameStartsWith(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String pattern = prefix.strip()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
+        return (root, query, cb) -> cb.like(join(root, "patient").get("fullName"), pattern, '!');
+    }
+
+    public static Specification<Appointment> startsAtOrAfter(LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("appointmentTime"), from);
+    }
+
+    public static Specification<Appointment> startsBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("appointmentTime"), to);
+    }
+
+    // Keyset position: rows strictly after the cursor in (appointmentTime, id) order
+    public static Specification<Appointment> after(AppointmentCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("appointmentTime"), cursor.getAppointmentTime()),
+                cb.and(cb.equal(root.get("appointmentTime"), cursor.getAppointmentTime()),
+                        cb.greaterThan(root.get("id"), cursor.getId())));
+    }
+
+    // Reuses the join made for the projection rather than joining the table a second time
+    @SuppressWarnings("unchecked")
+    static <T> Join<Appointment, T> join(Root<Appointment> root, String attribute) {
+        return root.getJoins().stream()
+                .filter(join -> join.getAttribute().getName().equals(attribute))
+                .map(join -> (Join<Appointment, T>) join)
+                .findFirst()
+                .orElseGet(() -> root.join(attribute));
+    }
+}
@@ -0,0 +1,28 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.model.DoctorDayCapacity;
+import com.mediconnect.model.DoctorDayKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface DoctorDayCapacityRepository extends JpaRepository<DoctorDayCapacity, DoctorDayKey>,
+        DoctorDayCapacityRepositoryCustom {
+
+    @Modifying
+    @Query("update DoctorDayCapacity c set c.booked = c.booked + 1 " +
+           "where c.id.doctorId = :doctorId and c.id.day = :day and c.booked < :max")
+    int incrementIfBelow(@Param("doctorId") Long doctorId, @Param("day") LocalDate day, @Param("max") int max);
+
+    @Modifying
+    @Query("update DoctorDayCapacity c set c.booked = c.booked - 1 " +
+           "where c.id.doctorId = :doctorId and c.id.day = :day and c.booked > 0")
+    int decrement(@Param("doctorId") Long doctorId, @Param("day") LocalDate day);
+
+    @Modifying
+    @Query("delete from DoctorDayCapacity c where c.id.day < :day")
+    int deleteBefore(@Param("day") LocalDate day);
+}
@@ -0,0 +1,13 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.model.DoctorDayKey;
+
+public interface DoctorDayCapacityRepositoryCustom {
+
+    /**
+     * Creates the capacity row with {@code booked} slots taken unless it already exists, in the
+     * current transaction. A concurrent insert of the same row makes this wait for the other
+     * transaction and then do nothing, instead of failing.
+     */
+    void insertIfAbsent(DoctorDayKey key, int booked);
+}
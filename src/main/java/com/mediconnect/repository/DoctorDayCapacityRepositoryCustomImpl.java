@@ -0,0 +1,59 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.model.DoctorDayKey;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+public class DoctorDayCapacityRepositoryCustomImpl implements DoctorDayCapacityRepositoryCustom {
+
+    // Updating a column to itself leaves an existing row as it is
+    private static final String MYSQL_INSERT =
+            "insert into doctor_day_capacity (doctor_id, booking_day, booked) values (?1, ?2, ?3) " +
+            "on duplicate key update booked = booked";
+
+    private static final String PLAIN_INSERT =
+            "insert into doctor_day_capacity (doctor_id, booking_day, booked) values (?, ?, ?)";
+
+    private static final String INTEGRITY_VIOLATION_CLASS = "23";
+
+    private final EntityManager entityManager;
+    private final boolean mysql;
+
+    public DoctorDayCapacityRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.mysql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+
+    @Override
+    public void insertIfAbsent(DoctorDayKey key, int booked) {
+        if (mysql) {
+            entityManager.createNativeQuery(MYSQL_INSERT)
+                    .setParameter(1, key.getDoctorId())
+                    .setParameter(2, key.getDay())
+                    .setParameter(3, booked)
+                    .executeUpdate();
+            return;
+        }
+        // The embedded H2 store of the benchmarks and load tests: its MERGE is not atomic against a
+        // concurrent insert, but a failed statement only rolls back itself, so the duplicate is ignored
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(PLAIN_INSERT)) {
+                insert.setLong(1, key.getDoctorId());
+                insert.setDate(2, Date.valueOf(key.getDay()));
+                insert.setInt(3, booked);
+                insert.executeUpdate();
+            } catch (SQLException e) {
+                if (e.getSQLState() == null || !e.getSQLState().startsWith(INTEGRITY_VIOLATION_CLASS)) {
+                    throw e;
+                }
+            }
+        });
+    }
+}
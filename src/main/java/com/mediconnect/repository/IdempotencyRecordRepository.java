@@ -0,0 +1,26 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.model.IdempotencyRecord;
+import com.mediconnect.model.IdempotencyRecordKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecordKey>,
+        IdempotencyRecordRepositoryCustom {
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.response = :response where r.id = :id")
+    int saveResponse(@Param("id") IdempotencyRecordKey id, @Param("response") String response);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.id = :id and r.expiresAt <= :now")
+    int deleteIfExpired(@Param("id") IdempotencyRecordKey id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
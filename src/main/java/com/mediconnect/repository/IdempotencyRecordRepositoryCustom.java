@@ -0,0 +1,15 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.model.IdempotencyRecordKey;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepositoryCustom {
+
+    /**
+     * Inserts the record in the current transaction and returns true, or returns false if it
+     * already exists. A concurrent insert of the same key makes this wait for the other
+     * transaction: false once it commits, true if it rolls back.
+     */
+    boolean insertIfAbsent(IdempotencyRecordKey id, String fingerprint, LocalDateTime expiresAt);
+}
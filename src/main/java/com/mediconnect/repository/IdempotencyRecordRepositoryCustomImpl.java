@@ -0,0 +1,60 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.model.IdempotencyRecordKey;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class IdempotencyRecordRepositoryCustomImpl implements IdempotencyRecordRepositoryCustom {
+
+    private static final String MYSQL_INSERT =
+            "insert ignore into idempotency_records (username, idempotency_key, fingerprint, expires_at) " +
+            "values (?1, ?2, ?3, ?4)";
+
+    private static final String PLAIN_INSERT =
+            "insert into idempotency_records (username, idempotency_key, fingerprint, expires_at) values (?, ?, ?, ?)";
+
+    private static final String INTEGRITY_VIOLATION_CLASS = "23";
+
+    private final EntityManager entityManager;
+    private final boolean mysql;
+
+    public IdempotencyRecordRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.mysql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof MySQLDialect;
+    }
+
+    @Override
+    public boolean insertIfAbsent(IdempotencyRecordKey id, String fingerprint, LocalDateTime expiresAt) {
+        if (mysql) {
+            return entityManager.createNativeQuery(MYSQL_INSERT)
+                    .setParameter(1, id.getUsername())
+                    .setParameter(2, id.getIdempotencyKey())
+                    .setParameter(3, fingerprint)
+                    .setParameter(4, expiresAt)
+                    .executeUpdate() == 1;
+        }
+        // Embedded H2: a failed statement only rolls back itself, so the duplicate is reported instead
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(PLAIN_INSERT)) {
+                insert.setString(1, id.getUsername());
+                insert.setString(2, id.getIdempotencyKey());
+                insert.setString(3, fingerprint);
+                insert.setTimestamp(4, Timestamp.valueOf(expiresAt));
+                return insert.executeUpdate() == 1;
+            } catch (SQLException e) {
+                if (e.getSQLState() == null || !e.getSQLState().startsWith(INTEGRITY_VIOLATION_CLASS)) {
+                    throw e;
+                }
+                return false;
+            }
+        });
+    }
+}
@@ -1,11 +1,18 @@
 package com.mediconnect.repository;
 
+import com.mediconnect.model.Role;
 import com.mediconnect.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
-}
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    long countByRole(Role role);
 
+    // A plain query, so it always reads the database and sees revocations made by other instances
+    @Query("select u.tokenVersion from User u where u.username = :username")
+    Optional<Integer> findTokenVersionByUsername(@Param("username") String username);
+}
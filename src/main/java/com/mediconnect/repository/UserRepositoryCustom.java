@@ -0,0 +1,20 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Looks the user up by natural id, so repeated lookups are answered from the
+     * second-level cache instead of running a query.
+     */
+    Optional<User> findByUsername(String username);
+
+    /**
+     * Loads the user's current row from the database and locks it for the rest of the
+     * transaction, so a read-modify-write of the entity cannot lose a concurrent update.
+     */
+    Optional<User> findByUsernameForUpdate(String username);
+}
@@ -0,0 +1,47 @@
+package com.mediconnect.repository;
+
+import com.mediconnect.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            return load(entityManager.unwrap(Session.class), username);
+        }
+        // Outside a transaction (e.g. in the JWT filter); the session only takes a connection on a cache miss
+        try (Session session = entityManagerFactory.unwrap(SessionFactory.class).openSession()) {
+            return load(session, username);
+        }
+    }
+
+    @Override
+    public Optional<User> findByUsernameForUpdate(String username) {
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null) {
+            throw new IllegalStateException("No transaction to hold the row lock");
+        }
+        // A locking load always reads the row itself, never the second-level cache
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class)
+                .with(new LockOptions(LockMode.PESSIMISTIC_WRITE))
+                .loadOptional(username);
+    }
+
+    private static Optional<User> load(Session session, String username) {
+        return session.bySimpleNaturalId(User.class).loadOptional(username);
+    }
+}
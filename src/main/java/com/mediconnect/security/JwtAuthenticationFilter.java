@@ -1,19 +1,25 @@
 package com.mediconnect.security;
 
 import com.mediconnect.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -21,6 +27,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+
+    // When enabled, authorities come from the signed token instead of a users lookup
+    @Value("${jwt.stateless-auth:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,12 +44,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
+        // One signature check (or cache lookup) per request; every claim is read from the result
+        Claims claims = jwtService.verify(authHeader.substring(7));
+        String username = claims.getSubject();
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(token, userDetails.getUsername())) {
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && tokenVersionRegistry.isCurrent(username, JwtService.tokenVersionOf(claims))) {
+            var userDetails = statelessAuth
+                    ? userDetailsFromClaims(claims, username)
+                    : userDetailsService.loadUserByUsername(username);
+            if (JwtService.isValid(claims, userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -52,5 +67,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
 
+    private UserDetails userDetailsFromClaims(Claims claims, String username) {
+        String roleName = "ROLE_" + JwtService.roleOf(claims);
+        return new User(username, "", List.of(new SimpleGrantedAuthority(roleName)));
+    }
+}
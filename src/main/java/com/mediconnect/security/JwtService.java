@@ -1,9 +1,14 @@
 package com.mediconnect.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -12,60 +17,110 @@ import java.util.Date;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    private static final String ROLE_CLAIM = "role";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration-ms}")
     private long expirationMs;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private Key signInKey;
+    private JwtParser parser;
+    private VerifiedTokenCache tokenCache;
+    private Timer verifyTimer;
+
+    @PostConstruct
+    void init() {
+        // Use the secret string bytes directly; no Base64 encoding required
+        byte[] keyBytes = secret.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        signInKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+        tokenCache = new VerifiedTokenCache(cacheMaxEntries);
+        verifyTimer = Timer.builder("jwt.verify")
+                .description("Signature verification of tokens not found in the verified-token cache")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies the token once (or finds it in the verified-token cache) and returns its claims;
+     * callers read everything they need from the result instead of resolving the token again.
+     */
+    public Claims verify(String token) {
+        return extractAllClaims(token);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
+    public String extractRole(String token) {
+        return extractClaim(token, JwtService::roleOf);
+    }
+
+    public int extractTokenVersion(String token) {
+        return extractClaim(token, JwtService::tokenVersionOf);
+    }
+
+    public static String roleOf(Claims claims) {
+        return claims.get(ROLE_CLAIM, String.class);
+    }
+
+    public static int tokenVersionOf(Claims claims) {
+        // Tokens issued before versioning was introduced carry no claim and count as version 0
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version != null ? version : 0;
+    }
+
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    public String generateToken(String username, String role) {
+    public String generateToken(String username, String role, int tokenVersion) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
         return Jwts.builder()
                 .setSubject(username)
-                .claim("role", role)
+                .claim(ROLE_CLAIM, role)
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return extractedUsername.equals(username) && !isTokenExpired(token);
+        return isValid(extractAllClaims(token), username);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public static boolean isValid(Claims claims, String username) {
+        return claims.getSubject().equals(username) && !claims.getExpiration().before(new Date());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public VerifiedTokenCache getTokenCache() {
+        return tokenCache;
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        // Use the secret string bytes directly; no Base64 encoding required
-        byte[] keyBytes = secret.getBytes(java.nio.charset.StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Claims cached = tokenCache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = verifyTimer.record(() -> parser.parseClaimsJws(token).getBody());
+        tokenCache.put(token, claims);
+        return claims;
     }
 }
-
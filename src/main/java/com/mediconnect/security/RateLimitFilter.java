@@ -0,0 +1,133 @@
+package com.mediconnect.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-client request budgets, checked right after the JWT filter so authenticated clients are
+ * limited per user and everyone else per IP address. Requests over budget get {@code 429} with
+ * {@code Retry-After} before any controller, service or database work is done.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    enum EndpointClass {
+        // Login and registration, always limited per IP: they run a password hash each
+        AUTH,
+        // Booking, which opens a transaction and takes a capacity row lock
+        BOOKING,
+        DEFAULT
+    }
+
+    private final boolean enabled;
+    @Getter
+    private final RateLimiter rateLimiter;
+    private final Map<EndpointClass, RateLimiter.Budget> budgets = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejected = new EnumMap<>(EndpointClass.class);
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.max-keys:100000}") int maxKeys,
+                           @Value("${rate-limit.auth.per-second:0.5}") double authRate,
+                           @Value("${rate-limit.auth.burst:10}") int authBurst,
+                           @Value("${rate-limit.booking.per-second:2}") double bookingRate,
+                           @Value("${rate-limit.booking.burst:10}") int bookingBurst,
+                           @Value("${rate-limit.default.per-second:20}") double defaultRate,
+                           @Value("${rate-limit.default.burst:100}") int defaultBurst,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.rateLimiter = new RateLimiter(maxKeys);
+        budgets.put(EndpointClass.AUTH, RateLimiter.Budget.of(authRate, authBurst));
+        budgets.put(EndpointClass.BOOKING, RateLimiter.Budget.of(bookingRate, bookingBurst));
+        budgets.put(EndpointClass.DEFAULT, RateLimiter.Budget.of(defaultRate, defaultBurst));
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            rejected.put(endpointClass, Counter.builder("rate.limit.rejected")
+                    .tag("endpoint", endpointClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        String key = endpointClass.name() + ':' + clientOf(request, endpointClass);
+        long waitNanos = rateLimiter.tryAcquire(key, budgets.get(endpointClass));
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(endpointClass).increment();
+        long retryAfterSeconds = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Too many requests");
+        body.put("details", "Request budget exceeded; retry after " + retryAfterSeconds + " seconds");
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    // Idle buckets are full buckets, so dropping them never changes a client's limit
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        rateLimiter.sweep();
+    }
+
+    private static EndpointClass classify(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/api/auth/") && !uri.equals("/api/auth/logout")) {
+            return EndpointClass.AUTH;
+        }
+        if (HttpMethod.POST.matches(request.getMethod())
+                && (uri.equals("/api/appointments") || uri.equals("/api/appointments/batch"))) {
+            return EndpointClass.BOOKING;
+        }
+        return EndpointClass.DEFAULT;
+    }
+
+    private static String clientOf(HttpServletRequest request, EndpointClass endpointClass) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (endpointClass != EndpointClass.AUTH && authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        // The proxy-reported client when the connection comes from a trusted proxy (server.forward-headers-strategy)
+        return "ip:" + request.getRemoteAddr();
+    }
+}
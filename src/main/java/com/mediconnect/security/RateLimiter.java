@@ -0,0 +1,109 @@
+package com.mediconnect.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets keyed by client, implemented as GCRA: each bucket is a single "theoretical
+ * arrival time" updated by compare-and-set, so admitting a request takes no lock.
+ * <p>
+ * A bucket whose arrival time has passed is full, which is exactly the state of a new bucket,
+ * so such idle buckets can be dropped at any time without changing anyone's limit.
+ */
+public class RateLimiter {
+
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder evictions = new LongAdder();
+
+    public RateLimiter(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Takes one token from {@code key}'s bucket. Returns 0 if the request is admitted, otherwise
+     * the nanoseconds until a token will be available.
+     */
+    public long tryAcquire(String key, Budget budget) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict();
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + budget.intervalNanos();
+            long excess = next - now - budget.toleranceNanos();
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops the buckets that have refilled completely.
+     */
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> {
+            if (bucket.get() - now <= 0) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    public int getSize() {
+        return buckets.size();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private void evict() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sweep();
+            // Still full of active clients: drop roughly a tenth, which hands them a fresh bucket
+            int target = maxKeys - Math.max(1, maxKeys / 10);
+            Iterator<String> it = buckets.keySet().iterator();
+            while (buckets.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Sustained rate and burst size of one class of requests. A full bucket admits {@code burst}
+     * requests at once, then one request per {@code 1 / permitsPerSecond} seconds.
+     */
+    public record Budget(long intervalNanos, long toleranceNanos) {
+
+        public static Budget of(double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0 || burst < 1) {
+                throw new IllegalStateException("Rate limit needs a positive rate and a burst of at least 1");
+            }
+            long interval = (long) Math.ceil(1_000_000_000L / permitsPerSecond);
+            return new Budget(interval, interval * burst);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.mediconnect.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mediconnect.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * In-memory view of each user's current token version, used to reject revoked tokens
+ * without loading the full user row. Entries are refreshed after a short TTL so a
+ * revocation made by another instance is picked up as well, and at most
+ * {@code jwt.token-version.cache-max-entries} users are held at a time.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+
+    @Value("${jwt.token-version.cache-ttl-ms:30000}")
+    private long cacheTtlMs;
+
+    @Value("${jwt.token-version.cache-max-entries:100000}")
+    private long cacheMaxEntries;
+
+    private Cache<String, Integer> versions;
+
+    @PostConstruct
+    void init() {
+        versions = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .build();
+    }
+
+    public boolean isCurrent(String username, int tokenVersion) {
+        Integer current = currentVersion(username);
+        return current != null && current == tokenVersion;
+    }
+
+    public Integer currentVersion(String username) {
+        // Unknown users are not cached, so a later registration is seen at once
+        return versions.get(username, name -> userRepository.findTokenVersionByUsername(name).orElse(null));
+    }
+
+    public void invalidate(String username) {
+        versions.invalidate(username);
+    }
+}
@@ -0,0 +1,103 @@
+package com.mediconnect.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.jsonwebtoken.Claims;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of claims whose signature has already been verified.
+ * Entries are keyed by the SHA-256 digest of the token, so raw bearer tokens are never
+ * retained, and each one expires together with its token.
+ */
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Cache<ByteBuffer, Claims> entries;
+
+    public VerifiedTokenCache(int maxEntries) {
+        this(maxEntries, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    VerifiedTokenCache(int maxEntries, Ticker ticker, Executor executor) {
+        this.maxEntries = maxEntries;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxEntries))
+                .expireAfter(new TokenExpiry())
+                .ticker(ticker)
+                .executor(executor)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the claims of a verified token that has not expired yet, or null. An expired token
+     * is never served, so the parser raises the usual ExpiredJwtException for it.
+     */
+    public Claims get(String token) {
+        return entries.getIfPresent(digest(token));
+    }
+
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null || maxEntries <= 0) {
+            return;
+        }
+        entries.put(digest(token), claims);
+    }
+
+    public long getHits() {
+        return entries.stats().hitCount();
+    }
+
+    public long getMisses() {
+        return entries.stats().missCount();
+    }
+
+    // Counts tokens dropped for expiring as well as for the size bound
+    public long getEvictions() {
+        return entries.stats().evictionCount();
+    }
+
+    public long getSize() {
+        return entries.estimatedSize();
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long remainingMs = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
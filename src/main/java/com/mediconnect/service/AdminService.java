@@ -2,62 +2,208 @@ package com.mediconnect.service;
 
 import com.mediconnect.dto.AdminAppointmentDto;
 import com.mediconnect.dto.AdminStatsDto;
+import com.mediconnect.dto.AppointmentCursor;
+import com.mediconnect.dto.AppointmentStateDto;
+import com.mediconnect.dto.BatchStatusUpdateRequest;
+import com.mediconnect.dto.CursorPage;
+import com.mediconnect.event.AppointmentStatusChangedEvent;
 import com.mediconnect.model.Appointment;
 import com.mediconnect.model.AppointmentStatus;
 import com.mediconnect.repository.AppointmentRepository;
-import com.mediconnect.repository.DoctorRepository;
-import com.mediconnect.repository.UserRepository;
+import com.mediconnect.repository.AppointmentSpecifications;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AdminService {
 
-    private final UserRepository userRepository;
-    private final DoctorRepository doctorRepository;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final AppointmentRepository appointmentRepository;
+    private final DoctorCapacityLedger capacityLedger;
+    private final AdminStatsAggregator statsAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserService userService;
 
-    @Transactional(readOnly = true)
     public AdminStatsDto getStats() {
-        long totalPatients = userRepository.count(); // simplified: includes admins
-        long totalDoctors = doctorRepository.count();
-        long totalAppointments = appointmentRepository.count();
-        long appointmentsToday = appointmentRepository.countByDay(LocalDate.now());
+        return statsAggregator.snapshot();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<AdminAppointmentDto> getAppointments(AppointmentStatus status,
+                                                           LocalDateTime from,
+                                                           LocalDateTime to,
+                                                           String cursor,
+                                                           int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        AppointmentCursor after = cursor != null ? AppointmentCursor.decode(cursor) : null;
+
+        Specification<Appointment> spec = Specification
+                .where(AppointmentSpecifications.hasStatus(status))
+                .and(AppointmentSpecifications.startsAtOrAfter(from))
+                .and(AppointmentSpecifications.startsBefore(to))
+                .and(AppointmentSpecifications.after(after));
+        Slice<AdminAppointmentDto> slice = appointmentRepository.searchSlice(spec, limit);
+
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            AdminAppointmentDto last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new AppointmentCursor(last.getAppointmentTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(slice.getContent(), nextCursor);
+    }
+
+    /**
+     * Appointments matching every given filter, in (appointmentTime, id) order. Only the filters
+     * that are set become part of the query, so each combination can use its own index.
+     * {@code patientName} matches from the start of the patient's full name.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AdminAppointmentDto> searchAppointments(Long doctorId,
+                                                              String patientName,
+                                                              AppointmentStatus status,
+                                                              LocalDateTime from,
+                                                              LocalDateTime to,
+                                                              String cursor,
+                                                              int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        AppointmentCursor after = cursor != null ? AppointmentCursor.decode(cursor) : null;
+
+        Specification<Appointment> spec = Specification
+                .where(AppointmentSpecifications.hasDoctor(doctorId))
+                .and(AppointmentSpecifications.patientNameStartsWith(patientName))
+                .and(AppointmentSpecifications.hasStatus(status))
+                .and(AppointmentSpecifications.startsAtOrAfter(from))
+                .and(AppointmentSpecifications.startsBefore(to))
+                .and(AppointmentSpecifications.after(after));
+        Slice<AdminAppointmentDto> slice = appointmentRepository.searchSlice(spec, limit);
 
-        return new AdminStatsDto(totalPatients, totalDoctors, totalAppointments, appointmentsToday);
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            AdminAppointmentDto last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = new AppointmentCursor(last.getAppointmentTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(slice.getContent(), nextCursor);
     }
 
+    /**
+     * Passes every appointment matching the filters to {@code sink} in (appointmentTime, id) order.
+     * Rows are read through one database cursor in a single read-only transaction, so memory use
+     * does not grow with the number of rows.
+     */
     @Transactional(readOnly = true)
-    public List<AdminAppointmentDto> getAllAppointments() {
-        return appointmentRepository.findAll().stream()
-                .map(this::toAdminAppointmentDto)
-                .collect(Collectors.toList());
+    public void exportAppointments(AppointmentStatus status,
+                                   LocalDateTime from,
+                                   LocalDateTime to,
+                                   Consumer<? super AdminAppointmentDto> sink) {
+        Specification<Appointment> spec = Specification
+                .where(AppointmentSpecifications.hasStatus(status))
+                .and(AppointmentSpecifications.startsAtOrAfter(from))
+                .and(AppointmentSpecifications.startsBefore(to));
+        try (Stream<AdminAppointmentDto> rows = appointmentRepository.streamAll(spec)) {
+            rows.forEach(sink);
+        }
     }
 
     @Transactional
     public void updateAppointmentStatus(Long appointmentId, AppointmentStatus status) {
-        Appointment appointment = appointmentRepository.findById(appointmentId)
-                .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
-        appointment.setStatus(status);
-        appointmentRepository.save(appointment);
-    }
-
-    private AdminAppointmentDto toAdminAppointmentDto(Appointment a) {
-        String patientName = a.getPatient().getFullName();
-        String doctorName = a.getDoctor().getName();
-        return new AdminAppointmentDto(
-                a.getId(),
-                doctorName,
-                patientName,
-                a.getAppointmentTime(),
-                a.getStatus()
-        );
+        updateAppointmentStatuses(List.of(new BatchStatusUpdateRequest.Item(appointmentId, status)));
     }
-}
 
+    /**
+     * Applies all transitions in one transaction: one select for the current states and one
+     * bulk update per pair of current and target status. Fails as a whole if any appointment is
+     * missing, was changed by another transaction after it was read, or a re-activation would
+     * exceed a doctor's daily cap.
+     */
+    @Transactional
+    public void updateAppointmentStatuses(List<BatchStatusUpdateRequest.Item> updates) {
+        Map<Long, AppointmentStatus> targets = new LinkedHashMap<>();
+        for (BatchStatusUpdateRequest.Item update : updates) {
+            targets.put(update.getId(), update.getStatus());
+        }
+
+        List<AppointmentStateDto> states = appointmentRepository.findStatesByIdIn(targets.keySet());
+        if (states.size() != targets.size()) {
+            throw new IllegalArgumentException("Appointment not found");
+        }
+
+        Long actorId = currentUserId();
+        Map<AppointmentStatus, Map<AppointmentStatus, List<Long>>> idsByTransition = new EnumMap<>(AppointmentStatus.class);
+        List<AppointmentStateDto> changed = new ArrayList<>();
+        List<AppointmentStatusChangedEvent> events = new ArrayList<>();
+        for (AppointmentStateDto state : states) {
+            AppointmentStatus status = targets.get(state.getId());
+            if (state.getStatus() == status) {
+                continue;
+            }
+            idsByTransition.computeIfAbsent(state.getStatus(), s -> new EnumMap<>(AppointmentStatus.class))
+                    .computeIfAbsent(status, s -> new ArrayList<>())
+                    .add(state.getId());
+            changed.add(state);
+            events.add(new AppointmentStatusChangedEvent(
+                    state.getId(),
+                    state.getDoctorId(),
+                    state.getPatientId(),
+                    state.getAppointmentTime(),
+                    state.getStatus(),
+                    status,
+                    actorId));
+        }
+
+        // Each update only matches rows still in the status read above, and waits for any
+        // transaction changing them, so a concurrent change is seen before capacity moves
+        idsByTransition.forEach((expected, byTarget) -> byTarget.forEach((status, ids) -> {
+            if (appointmentRepository.updateStatusByIdInAndStatus(ids, expected, status) != ids.size()) {
+                throw new IllegalArgumentException("Appointment was updated concurrently, retry the request");
+            }
+        }));
+        for (AppointmentStateDto state : changed) {
+            adjustCapacity(state, targets.get(state.getId()));
+        }
+        events.forEach(eventPublisher::publishEvent);
+    }
+
+    // Null outside of a request, e.g. when called from a background job
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? userService.getByUsername(authentication.getName()).getId() : null;
+    }
+
+    // Cancelled appointments do not count towards the doctor's daily cap
+    private void adjustCapacity(AppointmentStateDto appointment, AppointmentStatus newStatus) {
+        boolean wasActive = appointment.getStatus() != AppointmentStatus.CANCELLED;
+        boolean isActive = newStatus != AppointmentStatus.CANCELLED;
+        if (wasActive == isActive) {
+            return;
+        }
+        Long doctorId = appointment.getDoctorId();
+        LocalDate day = appointment.getAppointmentTime().toLocalDate();
+        if (isActive) {
+            capacityLedger.reserve(doctorId, day);
+        } else {
+            capacityLedger.release(doctorId, day);
+        }
+    }
+}
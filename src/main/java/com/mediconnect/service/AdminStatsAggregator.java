@@ -0,0 +1,134 @@
+package com.mediconnect.service;
+
+import com.mediconnect.dto.AdminStatsDto;
+import com.mediconnect.event.AppointmentBookedEvent;
+import com.mediconnect.event.AppointmentStatusChangedEvent;
+import com.mediconnect.event.DoctorCreatedEvent;
+import com.mediconnect.event.UserRegisteredEvent;
+import com.mediconnect.model.AppointmentStatus;
+import com.mediconnect.model.Role;
+import com.mediconnect.repository.AppointmentHistoryRepository;
+import com.mediconnect.repository.AppointmentRepository;
+import com.mediconnect.repository.DoctorRepository;
+import com.mediconnect.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard counters kept in memory: seeded from the database at startup and then moved by
+ * domain events as they commit, so reading the stats never touches the database. Events only
+ * arrive for changes made on this instance, so the counters are recounted from the database
+ * every {@code appointments.stats.refresh-interval-ms} to take in changes made elsewhere.
+ */
+@Service
+@RequiredArgsConstructor
+public class AdminStatsAggregator {
+
+    // Per-day buckets are only kept for a rolling window around today
+    private static final int RETAINED_PAST_DAYS = 30;
+
+    private final UserRepository userRepository;
+    private final DoctorRepository doctorRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentHistoryRepository historyRepository;
+
+    private volatile Counters counters = new Counters();
+
+    // Called by InMemoryViewLoader before the web server starts, then periodically. Events
+    // committed while the counts are read may be missed or counted twice until the next recount.
+    @Scheduled(fixedDelayString = "${appointments.stats.refresh-interval-ms:60000}",
+               initialDelayString = "${appointments.stats.refresh-interval-ms:60000}")
+    public void seed() {
+        Counters seeded = new Counters();
+        seeded.patients.add(userRepository.countByRole(Role.PATIENT));
+        seeded.doctors.add(doctorRepository.count());
+        // Archived appointments still count towards the totals
+        for (List<Object[]> rows : List.of(appointmentRepository.countByStatus(), historyRepository.countByStatus())) {
+            for (Object[] row : rows) {
+                long count = (Long) row[1];
+                seeded.appointmentsByStatus.get((AppointmentStatus) row[0]).add(count);
+                seeded.appointments.add(count);
+            }
+        }
+        LocalDate since = LocalDate.now().minusDays(RETAINED_PAST_DAYS);
+        for (Object[] row : appointmentRepository.countByDaySince(since.atStartOfDay())) {
+            seeded.dayBucket((LocalDate) row[0]).add((Long) row[1]);
+        }
+        counters = seeded;
+    }
+
+    public AdminStatsDto snapshot() {
+        Counters current = counters;
+        Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+        current.appointmentsByStatus.forEach((status, count) -> byStatus.put(status, count.sum()));
+        LongAdder today = current.appointmentsByDay.get(LocalDate.now());
+        return new AdminStatsDto(
+                current.patients.sum(),
+                current.doctors.sum(),
+                current.appointments.sum(),
+                today != null ? today.sum() : 0,
+                Collections.unmodifiableMap(byStatus)
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRegistered(UserRegisteredEvent event) {
+        if (event.getRole() == Role.PATIENT) {
+            counters.patients.increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorCreated(DoctorCreatedEvent event) {
+        counters.doctors.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentBooked(AppointmentBookedEvent event) {
+        Counters current = counters;
+        current.appointments.increment();
+        current.appointmentsByStatus.get(event.getStatus()).increment();
+        current.dayBucket(event.getAppointmentTime().toLocalDate()).increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        Counters current = counters;
+        current.appointmentsByStatus.get(event.getPreviousStatus()).decrement();
+        current.appointmentsByStatus.get(event.getStatus()).increment();
+    }
+
+    private static final class Counters {
+        private final LongAdder patients = new LongAdder();
+        private final LongAdder doctors = new LongAdder();
+        private final LongAdder appointments = new LongAdder();
+        private final Map<AppointmentStatus, LongAdder> appointmentsByStatus = new EnumMap<>(AppointmentStatus.class);
+        private final Map<LocalDate, LongAdder> appointmentsByDay = new ConcurrentHashMap<>();
+
+        private Counters() {
+            for (AppointmentStatus status : AppointmentStatus.values()) {
+                appointmentsByStatus.put(status, new LongAdder());
+            }
+        }
+
+        private LongAdder dayBucket(LocalDate day) {
+            LongAdder bucket = appointmentsByDay.get(day);
+            if (bucket == null) {
+                LocalDate cutoff = LocalDate.now().minusDays(RETAINED_PAST_DAYS);
+                appointmentsByDay.keySet().removeIf(d -> d.isBefore(cutoff));
+                bucket = appointmentsByDay.computeIfAbsent(day, d -> new LongAdder());
+            }
+            return bucket;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.mediconnect.service;
+
+import com.mediconnect.repository.AppointmentHistoryRepository;
+import com.mediconnect.repository.AppointmentRepository;
+import com.mediconnect.repository.DoctorDayCapacityRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves appointments older than the retention window from {@code appointments} into
+ * {@code appointments_history} so the hot table only holds recent and upcoming bookings.
+ * Rows are moved in small chunks, each in its own transaction, to keep locks short.
+ * Capacity ledger rows for the archived days are purged as well.
+ */
+@Service
+public class AppointmentArchiver {
+
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentHistoryRepository historyRepository;
+    private final DoctorDayCapacityRepository capacityRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Checked on each run rather than as a bean condition, which AOT processing would fix at build time
+    @Value("${appointments.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${appointments.archive.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${appointments.archive.chunk-size:500}")
+    private int chunkSize;
+
+    public AppointmentArchiver(AppointmentRepository appointmentRepository,
+                               AppointmentHistoryRepository historyRepository,
+                               DoctorDayCapacityRepository capacityRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.historyRepository = historyRepository;
+        this.capacityRepository = capacityRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.archive.interval-ms:3600000}",
+               initialDelayString = "${appointments.archive.interval-ms:3600000}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        archiveBefore(cutoff.atStartOfDay());
+        transactionTemplate.executeWithoutResult(status -> capacityRepository.deleteBefore(cutoff));
+    }
+
+    /**
+     * Archives every appointment before {@code before} and returns how many were moved.
+     */
+    public int archiveBefore(LocalDateTime before) {
+        int moved = 0;
+        while (true) {
+            Integer chunk = transactionTemplate.execute(status -> {
+                List<Long> ids = appointmentRepository.findIdsBefore(before, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                historyRepository.copyFromAppointments(ids, LocalDateTime.now());
+                return appointmentRepository.deleteByIdIn(ids);
+            });
+            if (chunk == null || chunk == 0) {
+                return moved;
+            }
+            moved += chunk;
+        }
+    }
+}
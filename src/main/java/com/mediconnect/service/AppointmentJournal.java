@@ -0,0 +1,269 @@
+package com.mediconnect.service;
+
+import com.mediconnect.dto.AppointmentTransitionDto;
+import com.mediconnect.event.AppointmentBookedEvent;
+import com.mediconnect.event.AppointmentStatusChangedEvent;
+import com.mediconnect.journal.JournalReader;
+import com.mediconnect.journal.JournalWriter;
+import com.mediconnect.journal.TransitionRecord;
+import com.mediconnect.model.User;
+import com.mediconnect.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind audit trail of appointment state transitions. Committed bookings and status
+ * changes are put on a lock-free queue, and a single writer thread appends them to the
+ * memory-mapped journal, so the booking transaction itself does no extra write.
+ * <p>
+ * Records are in the page cache as soon as they are appended and survive a process crash;
+ * they are forced to disk every {@code appointments.journal.force-interval-ms}. Transitions
+ * still queued when the JVM dies are lost, and so are transitions arriving while
+ * {@code appointments.journal.queue-capacity} are already queued; those are counted as dropped.
+ * Full segments older than {@code appointments.journal.retention-days} are deleted.
+ * <p>
+ * Off by default; enabling it requires an absolute {@code appointments.journal.directory}, so the
+ * journal cannot end up wherever the process happened to be started from.
+ */
+@Service
+@Slf4j
+public class AppointmentJournal implements SmartLifecycle {
+
+    // Starts before the web server and stops after it, so no committed transition is missed
+    private static final int PHASE = 0;
+    private static final int MAX_QUERY_LIMIT = 200;
+    private static final long RETENTION_CHECK_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentRecords;
+    private final long forceIntervalNanos;
+    private final int queueCapacity;
+    private final Duration retention;
+
+    private final Queue<TransitionRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AppointmentJournal(UserRepository userRepository,
+                              @Value("${appointments.journal.enabled:false}") boolean enabled,
+                              @Value("${appointments.journal.directory:}") String directory,
+                              @Value("${appointments.journal.segment-records:262144}") int segmentRecords,
+                              @Value("${appointments.journal.force-interval-ms:1000}") long forceIntervalMs,
+                              @Value("${appointments.journal.queue-capacity:65536}") int queueCapacity,
+                              @Value("${appointments.journal.retention-days:365}") int retentionDays) {
+        if (segmentRecords < 1 || (long) segmentRecords * TransitionRecord.SIZE > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Journal segments must hold between 1 and "
+                    + Integer.MAX_VALUE / TransitionRecord.SIZE + " records");
+        }
+        if (enabled && (directory.isBlank() || !Path.of(directory).isAbsolute())) {
+            throw new IllegalStateException("appointments.journal.directory must be an absolute path when the journal is enabled");
+        }
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentRecords = segmentRecords;
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMs);
+        this.queueCapacity = queueCapacity;
+        // 0 keeps every segment
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentBooked(AppointmentBookedEvent event) {
+        enqueue(new TransitionRecord(0, Instant.now(), event.getAppointmentId(), event.getDoctorId(),
+                event.getPatientId(), event.getAppointmentTime(), event.getActorId(), null, event.getStatus()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        enqueue(new TransitionRecord(0, Instant.now(), event.getAppointmentId(), event.getDoctorId(),
+                event.getPatientId(), event.getAppointmentTime(), event.getActorId(),
+                event.getPreviousStatus(), event.getStatus()));
+    }
+
+    /**
+     * The latest transitions of an appointment, newest first. Transitions committed in the last
+     * few milliseconds may still be queued and not show up yet.
+     */
+    public List<AppointmentTransitionDto> recentTransitions(Long appointmentId, int limit) {
+        if (!enabled) {
+            throw new IllegalArgumentException("Appointment journal is disabled");
+        }
+        if (limit < 1 || limit > MAX_QUERY_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_QUERY_LIMIT);
+        }
+        List<TransitionRecord> records;
+        try {
+            records = JournalReader.findRecent(directory, appointmentId, limit);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        // Served from the second-level cache
+        Map<Long, String> usernames = new HashMap<>();
+        ZoneId zone = ZoneId.systemDefault();
+        return records.stream()
+                .map(record -> new AppointmentTransitionDto(
+                        record.sequence(),
+                        LocalDateTime.ofInstant(record.recordedAt(), zone),
+                        record.actorId(),
+                        record.actorId() != null
+                                ? usernames.computeIfAbsent(record.actorId(), id ->
+                                        userRepository.findById(id).map(User::getUsername).orElse(null))
+                                : null,
+                        record.fromStatus(),
+                        record.toStatus()))
+                .toList();
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        JournalWriter writer;
+        try {
+            writer = new JournalWriter(directory, segmentRecords);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open appointment journal in " + directory, ex);
+        }
+        running = true;
+        Thread thread = new Thread(() -> writeLoop(writer), "appointment-journal-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread thread = writerThread;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void enqueue(TransitionRecord record) {
+        if (!enabled) {
+            return;
+        }
+        if (pending.incrementAndGet() > queueCapacity) {
+            pending.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(record);
+        LockSupport.unpark(writerThread);
+    }
+
+    private void writeLoop(JournalWriter writer) {
+        long lastForce = System.nanoTime();
+        long lastRetentionCheck = lastForce - RETENTION_CHECK_INTERVAL_NANOS;
+        boolean dirty = false;
+        // Keeps draining after stop() until the queue is empty
+        while (running || !queue.isEmpty()) {
+            TransitionRecord record = queue.poll();
+            if (record != null) {
+                pending.decrementAndGet();
+                try {
+                    writer.append(record.withSequence(writer.getNextSequence()));
+                    written.increment();
+                    dirty = true;
+                } catch (IOException | RuntimeException ex) {
+                    failures.increment();
+                }
+            }
+            // Checked after every record as well, so a steady stream of transitions cannot put off the force
+            long now = System.nanoTime();
+            if (dirty && now - lastForce >= forceIntervalNanos) {
+                writer.force();
+                lastForce = now;
+                dirty = false;
+            }
+            if (now - lastRetentionCheck >= RETENTION_CHECK_INTERVAL_NANOS) {
+                deleteExpiredSegments(writer);
+                lastRetentionCheck = now;
+            }
+            if (record == null) {
+                LockSupport.parkNanos(this, forceIntervalNanos);
+            }
+        }
+        try {
+            writer.close();
+        } catch (IOException ex) {
+            failures.increment();
+        }
+    }
+
+    private void deleteExpiredSegments(JournalWriter writer) {
+        if (retention.isZero()) {
+            return;
+        }
+        try {
+            int deleted = writer.deleteSegmentsBefore(Instant.now().minus(retention));
+            if (deleted > 0) {
+                log.info("Deleted {} appointment journal segments older than {} days", deleted, retention.toDays());
+            }
+        } catch (IOException ex) {
+            log.warn("Could not delete expired appointment journal segments", ex);
+        }
+    }
+}
@@ -1,86 +1,167 @@
 package com.mediconnect.service;
 
+import com.mediconnect.dto.AppointmentCursor;
 import com.mediconnect.dto.AppointmentRequestDto;
 import com.mediconnect.dto.AppointmentResponseDto;
-import com.mediconnect.exception.DoctorOverloadedException;
+import com.mediconnect.dto.CursorPage;
+import com.mediconnect.event.AppointmentBookedEvent;
 import com.mediconnect.model.Appointment;
 import com.mediconnect.model.AppointmentStatus;
 import com.mediconnect.model.Doctor;
 import com.mediconnect.model.User;
+import com.mediconnect.repository.AppointmentHistoryRepository;
 import com.mediconnect.repository.AppointmentRepository;
 import com.mediconnect.repository.DoctorRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class AppointmentService {
 
-    private static final int MAX_APPOINTMENTS_PER_DAY = 5;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Comparator<AppointmentResponseDto> NEWEST_FIRST = Comparator
+            .comparing(AppointmentResponseDto::getAppointmentTime)
+            .thenComparing(AppointmentResponseDto::getId)
+            .reversed();
 
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentHistoryRepository historyRepository;
     private final DoctorRepository doctorRepository;
     private final UserService userService;
+    private final DoctorCapacityLedger capacityLedger;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Timed(value = "appointments.book", extraTags = {"mode", "single"}, histogram = true)
     @Transactional
     public AppointmentResponseDto bookAppointment(AppointmentRequestDto request) {
-        LocalDateTime time = request.getAppointmentTime();
-        if (time.isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Appointment time cannot be in the past");
+        return bookAppointments(List.of(request)).get(0);
+    }
+
+    /**
+     * Books all requested appointments for the current patient in one transaction; the inserts
+     * are sent as a single JDBC batch. Fails as a whole if any of them cannot be booked.
+     */
+    @Timed(value = "appointments.book", extraTags = {"mode", "batch"}, histogram = true)
+    @Transactional
+    public List<AppointmentResponseDto> bookAppointments(List<AppointmentRequestDto> requests) {
+        LocalDateTime now = LocalDateTime.now();
+        for (AppointmentRequestDto request : requests) {
+            if (request.getAppointmentTime().isBefore(now)) {
+                throw new IllegalArgumentException("Appointment time cannot be in the past");
+            }
         }
 
-        Doctor doctor = doctorRepository.findById(request.getDoctorId())
-                .orElseThrow(() -> new IllegalArgumentException("Doctor not found"));
+        Set<Long> doctorIds = requests.stream()
+                .map(AppointmentRequestDto::getDoctorId)
+                .collect(Collectors.toSet());
+        // Looked up one by one: findById is served from the second-level cache, findAllById is a query
+        Map<Long, Doctor> doctors = new HashMap<>();
+        for (Long doctorId : doctorIds) {
+            doctors.put(doctorId, doctorRepository.findById(doctorId)
+                    .orElseThrow(() -> new IllegalArgumentException("Doctor not found")));
+        }
 
-        LocalDate day = time.toLocalDate();
-        long count = appointmentRepository.countByDoctorAndDay(doctor, day);
-        if (count >= MAX_APPOINTMENTS_PER_DAY) {
-            throw new DoctorOverloadedException("Doctor already has maximum appointments for this day");
+        for (AppointmentRequestDto request : requests) {
+            capacityLedger.reserve(request.getDoctorId(), request.getAppointmentTime().toLocalDate());
         }
 
         User patient = getCurrentUser();
 
-        Appointment appointment = Appointment.builder()
-                .doctor(doctor)
-                .patient(patient)
-                .appointmentTime(time)
-                .status(AppointmentStatus.PENDING)
-                .build();
-
-        Appointment saved = appointmentRepository.save(appointment);
-
-        // NEW CODE (With the status)
-return new AppointmentResponseDto(
-    appointment.getId(),
-    appointment.getPatient().getId(),
-    appointment.getPatient().getFullName(),
-    appointment.getDoctor().getName(),
-    appointment.getAppointmentTime(),
-    appointment.getStatus() // <--- Add this!
-);
+        List<Appointment> appointments = requests.stream()
+                .map(request -> Appointment.builder()
+                        .doctor(doctors.get(request.getDoctorId()))
+                        .patient(patient)
+                        .appointmentTime(request.getAppointmentTime())
+                        .status(AppointmentStatus.PENDING)
+                        .build())
+                .toList();
+        List<Appointment> saved = appointmentRepository.saveAll(appointments);
+
+        List<AppointmentResponseDto> responses = new ArrayList<>(saved.size());
+        for (Appointment appointment : saved) {
+            Doctor doctor = appointment.getDoctor();
+            eventPublisher.publishEvent(new AppointmentBookedEvent(
+                    appointment.getId(), doctor.getId(), patient.getId(),
+                    appointment.getAppointmentTime(), appointment.getStatus(), patient.getId()));
+            responses.add(new AppointmentResponseDto(
+                    appointment.getId(),
+                    doctor.getId(),
+                    doctor.getName(),
+                    doctor.getSpecialization(),
+                    appointment.getAppointmentTime(),
+                    appointment.getStatus()
+            ));
+        }
+        return responses;
     }
 
+    /**
+     * One page of the current patient's appointments. {@code upcoming} lists appointments from now
+     * on, soonest first; {@code past} lists earlier ones, most recent first, including those moved
+     * to {@code appointments_history} by the archiver. The cursor pins the boundary, so later pages
+     * continue from where the first one split the list.
+     */
     @Transactional(readOnly = true)
-    public List<AppointmentResponseDto> getAppointmentsForCurrentPatient() {
-        User patient = getCurrentUser();
-        return appointmentRepository.findByPatientOrderByAppointmentTimeAsc(patient).stream()
-                .map(a -> new AppointmentResponseDto(
-                        a.getId(),
-                        a.getDoctor().getId(),
-                        a.getDoctor().getName(),
-                        a.getDoctor().getSpecialization(),
-                        a.getAppointmentTime(),
-                        a.getStatus()
-                ))
-                .collect(Collectors.toList());
+    public CursorPage<AppointmentResponseDto> getAppointmentsForCurrentPatient(String view, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        boolean upcoming = switch (view) {
+            case "upcoming" -> true;
+            case "past" -> false;
+            default -> throw new IllegalArgumentException("View must be upcoming or past");
+        };
+        // Without a cursor the page starts at now: (now, 0) covers "at or after now" going
+        // forwards and "before now" going backwards, since ids are positive
+        AppointmentCursor position = cursor != null
+                ? AppointmentCursor.decode(cursor)
+                : new AppointmentCursor(LocalDateTime.now(), 0L);
+        Long patientId = getCurrentUser().getId();
+
+        // Fetch one extra row to learn whether another page exists
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<AppointmentResponseDto> rows;
+        if (upcoming) {
+            rows = appointmentRepository.findPatientPageAfter(
+                    patientId, position.getAppointmentTime(), position.getId(), page);
+        } else {
+            // Ids are unique across both tables, so the merged page keeps a strict (time, id) order
+            rows = Stream.concat(
+                            appointmentRepository.findPatientPageBefore(
+                                    patientId, position.getAppointmentTime(), position.getId(), page).stream(),
+                            historyRepository.findPatientPageBefore(
+                                    patientId, position.getAppointmentTime(), position.getId(), page).stream())
+                    .sorted(NEWEST_FIRST)
+                    .limit(limit + 1)
+                    .toList();
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<AppointmentResponseDto> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            AppointmentResponseDto last = items.get(items.size() - 1);
+            nextCursor = new AppointmentCursor(last.getAppointmentTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor);
     }
 
     private User getCurrentUser() {
@@ -0,0 +1,159 @@
+package com.mediconnect.service;
+
+import com.mediconnect.dto.AppointmentStatusUpdateDto;
+import com.mediconnect.event.AppointmentStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open Server-Sent Event streams per patient. Status changes are pushed once their transaction
+ * has committed. Every connection has a small bounded buffer drained by a shared sender pool,
+ * so a slow client never blocks the thread that committed the change; a client whose buffer
+ * overflows is disconnected and will reconnect and reload.
+ */
+@Service
+public class AppointmentStreamRegistry {
+
+    private static final String STATUS_EVENT = "appointment-status";
+
+    private final Map<Long, Deque<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final ExecutorService sender;
+
+    @Value("${appointments.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${appointments.stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${appointments.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    public AppointmentStreamRegistry(@Value("${appointments.stream.sender-threads:2}") int senderThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, task -> {
+            Thread thread = new Thread(task, "appointment-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long patientId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(patientId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(ex -> unregister(subscription));
+
+        Deque<Subscription> own = subscriptions.compute(patientId, (id, existing) -> {
+            Deque<Subscription> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.addLast(subscription);
+            return deque;
+        });
+        // Oldest connections make room, e.g. for tabs that were closed without a clean disconnect
+        while (own.size() > maxConnectionsPerUser) {
+            Subscription oldest = own.pollFirst();
+            if (oldest != null) {
+                oldest.emitter.complete();
+            }
+        }
+        enqueue(subscription, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        Deque<Subscription> own = subscriptions.get(event.getPatientId());
+        if (own == null || own.isEmpty()) {
+            return;
+        }
+        AppointmentStatusUpdateDto update = new AppointmentStatusUpdateDto(
+                event.getAppointmentId(), event.getDoctorId(), event.getAppointmentTime(),
+                event.getPreviousStatus(), event.getStatus());
+        for (Subscription subscription : own) {
+            enqueue(subscription, SseEmitter.event().name(STATUS_EVENT).data(update));
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${appointments.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Deque<Subscription> own : subscriptions.values()) {
+            for (Subscription subscription : own) {
+                if (subscription.buffer.isEmpty()) {
+                    enqueue(subscription, SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+
+    public int getConnectionCount() {
+        return subscriptions.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        subscriptions.values().forEach(own -> own.forEach(subscription -> subscription.emitter.complete()));
+    }
+
+    private void enqueue(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (!subscription.buffer.offer(event)) {
+            subscription.emitter.complete();
+            unregister(subscription);
+            return;
+        }
+        if (subscription.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscription.buffer.poll()) != null) {
+                try {
+                    subscription.emitter.send(event);
+                } catch (IOException | IllegalStateException ex) {
+                    subscription.buffer.clear();
+                    unregister(subscription);
+                    return;
+                }
+            }
+            subscription.draining.set(false);
+            // An event offered after the last poll but before the flag was cleared is picked up here
+            if (subscription.buffer.isEmpty() || !subscription.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.patientId, (id, own) -> {
+            own.remove(subscription);
+            return own.isEmpty() ? null : own;
+        });
+    }
+
+    private record Subscription(Long patientId, SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> buffer,
+                                AtomicBoolean draining) {
+        Subscription(Long patientId, SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> buffer) {
+            this(patientId, emitter, buffer, new AtomicBoolean());
+        }
+    }
+}
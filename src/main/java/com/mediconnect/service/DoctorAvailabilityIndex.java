@@ -0,0 +1,218 @@
+package com.mediconnect.service;
+
+import com.mediconnect.dto.DoctorAvailabilityDto;
+import com.mediconnect.event.AppointmentBookedEvent;
+import com.mediconnect.event.AppointmentStatusChangedEvent;
+import com.mediconnect.model.AppointmentStatus;
+import com.mediconnect.repository.AppointmentRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of booked slots per doctor and day, used to answer availability queries
+ * without touching the database. It is loaded with upcoming active appointments at startup
+ * and kept in step by booking and status events as they commit on this instance. Bookings
+ * made on other instances are picked up by a full reload every
+ * {@code appointments.availability.refresh-interval-ms}; a doctor not in the index yet is
+ * loaded from the database on first query.
+ * <p>
+ * Answers are advisory: booking still goes through {@link DoctorCapacityLedger}, which is
+ * authoritative for the daily limit.
+ */
+@Service
+@RequiredArgsConstructor
+public class DoctorAvailabilityIndex {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int MAX_RANGE_DAYS = 31;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorDirectory doctorDirectory;
+
+    @Value("${appointments.working-hours.start:09:00}")
+    private String workingHoursStart;
+
+    @Value("${appointments.working-hours.end:17:00}")
+    private String workingHoursEnd;
+
+    private int firstWorkingSlot;
+    private int endWorkingSlot;
+    private volatile Map<Long, Map<LocalDate, DaySlots>> slotsByDoctor = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        firstWorkingSlot = slotOf(LocalTime.parse(workingHoursStart));
+        endWorkingSlot = slotOf(LocalTime.parse(workingHoursEnd).minusNanos(1)) + 1;
+        if (firstWorkingSlot >= endWorkingSlot) {
+            throw new IllegalStateException("Working hours must end after they start");
+        }
+    }
+
+    // Called by InMemoryViewLoader before the web server starts, then periodically. Events
+    // committed while the query runs may be missed until the next reload.
+    @Scheduled(fixedDelayString = "${appointments.availability.refresh-interval-ms:60000}",
+               initialDelayString = "${appointments.availability.refresh-interval-ms:60000}")
+    public void load() {
+        Map<Long, Map<LocalDate, DaySlots>> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : appointmentRepository.findActiveDoctorTimesFrom(LocalDate.now().atStartOfDay())) {
+            add(loaded, (Long) row[0], (LocalDateTime) row[1]);
+        }
+        slotsByDoctor = loaded;
+    }
+
+    /**
+     * Free working-hour slots for each day in [from, to). Slots that have already started are
+     * never reported as free, and a day at the daily limit has no free slots at all.
+     */
+    public DoctorAvailabilityDto availability(Long doctorId, LocalDate from, LocalDate to) {
+        if (!doctorDirectory.contains(doctorId)) {
+            throw new IllegalArgumentException("Doctor not found");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Availability range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<LocalDate, DaySlots> days = slotsByDoctor.get(doctorId);
+        if (days == null) {
+            days = loadDoctor(doctorId);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<DoctorAvailabilityDto.Day> result = new ArrayList<>();
+        for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+            DaySlots slots = days.get(date);
+            int booked = 0;
+            long bookedSlots = 0;
+            if (slots != null) {
+                synchronized (slots) {
+                    booked = slots.total;
+                    bookedSlots = slots.bookedMask();
+                }
+            }
+            boolean full = booked >= DoctorCapacityLedger.MAX_APPOINTMENTS_PER_DAY;
+            List<LocalTime> free = new ArrayList<>();
+            if (!full) {
+                for (int slot = firstWorkingSlot; slot < endWorkingSlot; slot++) {
+                    LocalTime start = LocalTime.MIDNIGHT.plusMinutes((long) slot * SLOT_MINUTES);
+                    if ((bookedSlots & (1L << slot)) == 0 && date.atTime(start).isAfter(now)) {
+                        free.add(start);
+                    }
+                }
+            }
+            result.add(new DoctorAvailabilityDto.Day(date, booked, full, free));
+        }
+        return new DoctorAvailabilityDto(doctorId, SLOT_MINUTES, result);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentBooked(AppointmentBookedEvent event) {
+        if (event.getStatus() != AppointmentStatus.CANCELLED) {
+            add(event.getDoctorId(), event.getAppointmentTime());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppointmentStatusChanged(AppointmentStatusChangedEvent event) {
+        boolean wasActive = event.getPreviousStatus() != AppointmentStatus.CANCELLED;
+        boolean isActive = event.getStatus() != AppointmentStatus.CANCELLED;
+        if (wasActive && !isActive) {
+            remove(event.getDoctorId(), event.getAppointmentTime());
+        } else if (!wasActive && isActive) {
+            add(event.getDoctorId(), event.getAppointmentTime());
+        }
+    }
+
+    // A doctor without upcoming bookings at the last reload, or one created since; the entry is
+    // kept even when empty, so the next query does not ask again
+    private Map<LocalDate, DaySlots> loadDoctor(Long doctorId) {
+        Map<LocalDate, DaySlots> loaded = new ConcurrentHashMap<>();
+        for (LocalDateTime time : appointmentRepository.findActiveTimesByDoctorFrom(doctorId, LocalDate.now().atStartOfDay())) {
+            add(loaded, time);
+        }
+        Map<LocalDate, DaySlots> existing = slotsByDoctor.putIfAbsent(doctorId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private void add(Long doctorId, LocalDateTime time) {
+        add(slotsByDoctor, doctorId, time);
+    }
+
+    private static void add(Map<Long, Map<LocalDate, DaySlots>> slotsByDoctor, Long doctorId, LocalDateTime time) {
+        if (!time.toLocalDate().isBefore(LocalDate.now())) {
+            add(slotsByDoctor.computeIfAbsent(doctorId, id -> new ConcurrentHashMap<>()), time);
+        }
+    }
+
+    private static void add(Map<LocalDate, DaySlots> days, LocalDateTime time) {
+        LocalDate day = time.toLocalDate();
+        DaySlots slots = days.get(day);
+        if (slots == null) {
+            // Days that have passed are never queried as available again
+            LocalDate today = LocalDate.now();
+            days.keySet().removeIf(d -> d.isBefore(today));
+            slots = days.computeIfAbsent(day, d -> new DaySlots());
+        }
+        synchronized (slots) {
+            slots.add(slotOf(time.toLocalTime()));
+        }
+    }
+
+    private void remove(Long doctorId, LocalDateTime time) {
+        Map<LocalDate, DaySlots> days = slotsByDoctor.get(doctorId);
+        DaySlots slots = days != null ? days.get(time.toLocalDate()) : null;
+        if (slots != null) {
+            synchronized (slots) {
+                slots.remove(slotOf(time.toLocalTime()));
+            }
+        }
+    }
+
+    private static int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    /**
+     * Appointment counts per slot of one day; several appointments may share a slot.
+     */
+    private static final class DaySlots {
+        private final int[] counts = new int[SLOTS_PER_DAY];
+        private int total;
+
+        void add(int slot) {
+            counts[slot]++;
+            total++;
+        }
+
+        void remove(int slot) {
+            if (counts[slot] > 0) {
+                counts[slot]--;
+                total--;
+            }
+        }
+
+        long bookedMask() {
+            long mask = 0;
+            for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                if (counts[slot] > 0) {
+                    mask |= 1L << slot;
+                }
+            }
+            return mask;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mediconnect.service;
+
+import com.mediconnect.exception.DoctorOverloadedException;
+import com.mediconnect.model.DoctorDayKey;
+import com.mediconnect.repository.AppointmentRepository;
+import com.mediconnect.repository.DoctorDayCapacityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Admission control for the per-doctor daily appointment cap.
+ * <p>
+ * The {@code doctor_day_capacity} row for a (doctor, day) is the source of truth and is only
+ * ever moved with a conditional update, so concurrent bookings serialize on that single row
+ * instead of counting the appointments table. Days this instance has seen at the cap are
+ * remembered for a short time so repeated attempts are rejected without a round-trip.
+ */
+@Service
+public class DoctorCapacityLedger {
+
+    public static final int MAX_APPOINTMENTS_PER_DAY = 5;
+
+    private static final int MAX_FULL_DAY_ENTRIES = 10_000;
+
+    private final DoctorDayCapacityRepository capacityRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final Map<DoctorDayKey, Long> fullDays = new ConcurrentHashMap<>();
+    private final Counter rejectedFromCache;
+    private final Counter rejectedFromLedger;
+
+    @Value("${appointments.capacity.full-day-cache-ttl-ms:5000}")
+    private long fullDayCacheTtlMs;
+
+    public DoctorCapacityLedger(DoctorDayCapacityRepository capacityRepository,
+                                AppointmentRepository appointmentRepository,
+                                MeterRegistry meterRegistry) {
+        this.capacityRepository = capacityRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.rejectedFromCache = rejectionCounter(meterRegistry, "cache");
+        this.rejectedFromLedger = rejectionCounter(meterRegistry, "ledger");
+    }
+
+    /**
+     * Takes one slot of the doctor's capacity for the day as part of the current transaction.
+     * A missing row is created in that same transaction.
+     */
+    public void reserve(Long doctorId, LocalDate day) {
+        DoctorDayKey key = new DoctorDayKey(doctorId, day);
+        Long fullSince = fullDays.get(key);
+        if (fullSince != null && fullSince + fullDayCacheTtlMs > System.currentTimeMillis()) {
+            rejectedFromCache.increment();
+            throw overloaded();
+        }
+
+        // A plain read takes no locks. Updating a missing row would take an InnoDB gap lock,
+        // and the insert that follows could then deadlock with another booking in the same gap.
+        if (!capacityRepository.existsById(key)) {
+            createRow(key);
+        }
+        int updated = capacityRepository.incrementIfBelow(doctorId, day, MAX_APPOINTMENTS_PER_DAY);
+        if (updated == 0) {
+            rememberFull(key);
+            rejectedFromLedger.increment();
+            throw overloaded();
+        }
+    }
+
+    /**
+     * Gives a slot back, e.g. when an appointment is cancelled.
+     */
+    public void release(Long doctorId, LocalDate day) {
+        DoctorDayKey key = new DoctorDayKey(doctorId, day);
+        capacityRepository.decrement(doctorId, day);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fullDays.remove(key);
+                }
+            });
+        } else {
+            fullDays.remove(key);
+        }
+    }
+
+    private void createRow(DoctorDayKey key) {
+        // Days booked before the ledger existed start from the appointments already held
+        LocalDate day = key.getDay();
+        long booked = appointmentRepository.countActiveByDoctorBetween(
+                key.getDoctorId(), day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        capacityRepository.insertIfAbsent(key, (int) booked);
+    }
+
+    private void rememberFull(DoctorDayKey key) {
+        if (fullDays.size() >= MAX_FULL_DAY_ENTRIES) {
+            LocalDate today = LocalDate.now();
+            fullDays.keySet().removeIf(k -> k.getDay().isBefore(today));
+            if (fullDays.size() >= MAX_FULL_DAY_ENTRIES) {
+                fullDays.clear();
+            }
+        }
+        fullDays.put(key, System.currentTimeMillis());
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("appointments.capacity.rejected")
+                .description("Bookings rejected because the doctor's day was full")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private DoctorOverloadedException overloaded() {
+        return new DoctorOverloadedException("Doctor already has maximum appointments for this day");
+    }
+}
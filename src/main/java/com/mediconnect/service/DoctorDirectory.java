@@ -0,0 +1,142 @@
+package com.mediconnect.service;
+
+import com.mediconnect.dto.DoctorDto;
+import com.mediconnect.event.DoctorCreatedEvent;
+import com.mediconnect.repository.DoctorRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable in-memory snapshot of the doctor directory, indexed by specialization.
+ * A new snapshot is built and swapped in whenever a doctor is created on this instance, and
+ * reloaded every {@code doctors.directory.refresh-interval-ms} to pick up doctors created on
+ * other instances. A lookup by id that misses the snapshot checks the database before giving up.
+ */
+@Service
+@RequiredArgsConstructor
+public class DoctorDirectory {
+
+    private final DoctorRepository doctorRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    // Called by InMemoryViewLoader before the web server starts, then periodically
+    @Scheduled(fixedDelayString = "${doctors.directory.refresh-interval-ms:60000}",
+               initialDelayString = "${doctors.directory.refresh-interval-ms:60000}")
+    public void load() {
+        List<DoctorDto> loaded = doctorRepository.findAll(Sort.by("id")).stream()
+                .map(d -> new DoctorDto(d.getId(), d.getName(), d.getSpecialization()))
+                .toList();
+        snapshot.updateAndGet(current -> {
+            if (current == null) {
+                return new Snapshot(loaded);
+            }
+            // Doctors are never deleted, so one missing from the result was created here while it was read
+            Set<Long> loadedIds = loaded.stream().map(DoctorDto::getId).collect(Collectors.toSet());
+            List<DoctorDto> doctors = new ArrayList<>(loaded);
+            current.all.getDoctors().stream()
+                    .filter(doctor -> !loadedIds.contains(doctor.getId()))
+                    .forEach(doctors::add);
+            doctors.sort(Comparator.comparing(DoctorDto::getId));
+            return new Snapshot(doctors);
+        });
+    }
+
+    /**
+     * Returns every doctor, or only those whose specialization matches ignoring case.
+     */
+    public Listing find(String specialization) {
+        Snapshot current = snapshot.get();
+        if (specialization == null || specialization.isBlank()) {
+            return current.all;
+        }
+        return current.bySpecialization.getOrDefault(key(specialization), current.empty);
+    }
+
+    public boolean contains(Long doctorId) {
+        if (snapshot.get().ids.contains(doctorId)) {
+            return true;
+        }
+        // Possibly created on another instance since the last reload
+        if (doctorRepository.findById(doctorId).isEmpty()) {
+            return false;
+        }
+        load();
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDoctorCreated(DoctorCreatedEvent event) {
+        DoctorDto created = new DoctorDto(event.getDoctorId(), event.getName(), event.getSpecialization());
+        snapshot.updateAndGet(current -> {
+            List<DoctorDto> doctors = new ArrayList<>(current.all.getDoctors());
+            doctors.add(created);
+            return new Snapshot(doctors);
+        });
+    }
+
+    private static String key(String specialization) {
+        return specialization.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Getter
+    public static final class Listing {
+        private final List<DoctorDto> doctors;
+        // Strong validator derived from the listed content
+        private final String etag;
+
+        private Listing(List<DoctorDto> doctors) {
+            this.doctors = List.copyOf(doctors);
+            this.etag = etagOf(this.doctors);
+        }
+    }
+
+    private static final class Snapshot {
+        private final Listing all;
+        private final Listing empty = new Listing(List.of());
+        private final Map<String, Listing> bySpecialization;
+        private final Set<Long> ids;
+
+        private Snapshot(List<DoctorDto> doctors) {
+            this.all = new Listing(doctors);
+            this.ids = doctors.stream().map(DoctorDto::getId).collect(Collectors.toUnmodifiableSet());
+            Map<String, List<DoctorDto>> grouped = new LinkedHashMap<>();
+            for (DoctorDto doctor : doctors) {
+                grouped.computeIfAbsent(key(doctor.getSpecialization()), k -> new ArrayList<>()).add(doctor);
+            }
+            Map<String, Listing> index = new LinkedHashMap<>();
+            grouped.forEach((specialization, list) -> index.put(specialization, new Listing(list)));
+            this.bySpecialization = Map.copyOf(index);
+        }
+    }
+
+    private static String etagOf(List<DoctorDto> doctors) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (DoctorDto doctor : doctors) {
+                String row = doctor.getId() + "\u0000" + doctor.getName() + "\u0000" + doctor.getSpecialization() + "\n";
+                sha256.update(row.getBytes(StandardCharsets.UTF_8));
+            }
+            return "\"" + HexFormat.of().formatHex(sha256.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.mediconnect.service;
+
+import com.mediconnect.event.DoctorCreatedEvent;
+import com.mediconnect.model.Doctor;
+import com.mediconnect.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class DoctorService {
+
+    private final DoctorRepository doctorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public Doctor createDoctor(Doctor doctor) {
+        Doctor saved = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorCreatedEvent(saved.getId(), saved.getName(), saved.getSpecialization()));
+        return saved;
+    }
+}
@@ -0,0 +1,109 @@
+package com.mediconnect.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mediconnect.model.IdempotencyRecord;
+import com.mediconnect.model.IdempotencyRecordKey;
+import com.mediconnect.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key} header, per user,
+ * for a bounded time, in the {@code idempotency_records} table shared by all instances. A retry
+ * with the same key replays the stored result instead of running the operation again, and a
+ * retry that arrives while the first attempt is still running waits for that attempt. Failed
+ * attempts roll back their record, so the client can try again.
+ */
+@Service
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${appointments.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Runs {@code action} once per user and key, in a transaction that also records the key and
+     * the result. {@code fingerprint} identifies the request payload; reusing a key for a
+     * different payload is rejected.
+     */
+    public <T> T execute(String username, String idempotencyKey, String fingerprint,
+                         Class<T> resultType, Supplier<T> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        IdempotencyRecordKey id = new IdempotencyRecordKey(username, idempotencyKey);
+        while (true) {
+            Optional<T> result = transactionTemplate.execute(status -> {
+                LocalDateTime expiresAt = LocalDateTime.now().plus(ttlMs, ChronoUnit.MILLIS);
+                if (!repository.insertIfAbsent(id, fingerprint, expiresAt)) {
+                    return Optional.empty();
+                }
+                T value = action.get();
+                repository.saveResponse(id, write(value));
+                return Optional.of(value);
+            });
+            if (result.isPresent()) {
+                return result.get();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            IdempotencyRecord existing = repository.findById(id).orElse(null);
+            if (existing == null) {
+                // Expired and deleted in the meantime
+                continue;
+            }
+            if (!existing.getExpiresAt().isAfter(now)) {
+                transactionTemplate.executeWithoutResult(status -> repository.deleteIfExpired(id, now));
+                continue;
+            }
+            if (!Objects.equals(existing.getFingerprint(), fingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+            }
+            return read(existing.getResponse(), resultType);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${appointments.idempotency.sweep-interval-ms:3600000}",
+               initialDelayString = "${appointments.idempotency.sweep-interval-ms:3600000}")
+    public void deleteExpired() {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot store idempotent response", ex);
+        }
+    }
+
+    private <T> T read(String response, Class<T> type) {
+        try {
+            return objectMapper.readValue(response, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read stored idempotent response", ex);
+        }
+    }
+}
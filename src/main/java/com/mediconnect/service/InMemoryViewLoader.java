@@ -0,0 +1,55 @@
+package com.mediconnect.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the in-memory read views from the database after the context has been refreshed
+ * and before the web server starts accepting requests.
+ * <p>
+ * Doing this in a lifecycle phase instead of {@code @PostConstruct} keeps bean creation free
+ * of database access, so the context can be refreshed without a database: by AOT processing
+ * and by the class-data-sharing training run, which exits right after the refresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class InMemoryViewLoader implements SmartLifecycle {
+
+    // Any phase below the web server's (SmartLifecycle.DEFAULT_PHASE - 2048) runs before it starts
+    private static final int PHASE = 0;
+
+    private final DoctorDirectory doctorDirectory;
+    private final AdminStatsAggregator statsAggregator;
+    private final DoctorAvailabilityIndex availabilityIndex;
+
+    private boolean loaded;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        // Events and periodic reloads keep the views current from then on, so a context restart must not load them again
+        if (!loaded) {
+            doctorDirectory.load();
+            statsAggregator.seed();
+            availabilityIndex.load();
+            loaded = true;
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
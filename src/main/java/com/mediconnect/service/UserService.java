@@ -1,11 +1,17 @@
 package com.mediconnect.service;
 
+import com.mediconnect.event.UserRegisteredEvent;
 import com.mediconnect.model.Role;
 import com.mediconnect.model.User;
 import com.mediconnect.repository.UserRepository;
+import com.mediconnect.security.TokenVersionRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
@@ -13,6 +19,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User getByUsername(String username) {
         return userRepository.findByUsername(username)
@@ -28,7 +36,7 @@ public class UserService {
                             .password(passwordEncoder.encode("admin123"))
                             .role(Role.ADMIN)
                             .build();
-                    return userRepository.save(admin);
+                    return save(admin);
                 });
     }
 
@@ -39,7 +47,27 @@ public class UserService {
                 .password(passwordEncoder.encode(rawPassword))
                 .role(Role.PATIENT)
                 .build();
-        return userRepository.save(user);
+        return save(user);
+    }
+
+    @Transactional
+    public void revokeTokens(String username) {
+        // Updated through the locked entity so only this user's second-level cache entry is refreshed
+        User user = userRepository.findByUsernameForUpdate(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        // Drop the cached version only once the bump is visible to other transactions
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenVersionRegistry.invalidate(username);
+            }
+        });
     }
-}
 
+    private User save(User user) {
+        User saved = userRepository.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(saved.getId(), saved.getUsername(), saved.getRole()));
+        return saved;
+    }
+}
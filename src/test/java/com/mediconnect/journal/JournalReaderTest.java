@@ -0,0 +1,59 @@
+package com.mediconnect.journal;
+
+import com.mediconnect.model.AppointmentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalReaderTest {
+
+    private static final long APPOINTMENT_ID = 42;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void findsRecentTransitionsNewestFirstAcrossSegments() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 3)) {
+            append(writer, APPOINTMENT_ID, null, AppointmentStatus.PENDING);
+            append(writer, 7, null, AppointmentStatus.PENDING);
+            append(writer, APPOINTMENT_ID, AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+            append(writer, 7, AppointmentStatus.PENDING, AppointmentStatus.CANCELLED);
+            append(writer, APPOINTMENT_ID, AppointmentStatus.CONFIRMED, AppointmentStatus.CANCELLED);
+        }
+
+        assertThat(JournalReader.findRecent(directory, APPOINTMENT_ID, 10))
+                .extracting(TransitionRecord::sequence)
+                .containsExactly(5L, 3L, 1L);
+        assertThat(JournalReader.findRecent(directory, APPOINTMENT_ID, 2))
+                .extracting(TransitionRecord::toStatus)
+                .containsExactly(AppointmentStatus.CANCELLED, AppointmentStatus.CONFIRMED);
+        assertThat(JournalReader.findRecent(directory, 99, 10)).isEmpty();
+    }
+
+    @Test
+    void stopsAtTheBookingRecord() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 2)) {
+            // Left over from an earlier appointment with the same id, e.g. before a database reset
+            append(writer, APPOINTMENT_ID, AppointmentStatus.PENDING, AppointmentStatus.CANCELLED);
+            append(writer, APPOINTMENT_ID, null, AppointmentStatus.PENDING);
+            append(writer, APPOINTMENT_ID, AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+        }
+
+        assertThat(JournalReader.findRecent(directory, APPOINTMENT_ID, 10))
+                .extracting(TransitionRecord::sequence)
+                .containsExactly(3L, 2L);
+    }
+
+    private static void append(JournalWriter writer, long appointmentId,
+                               AppointmentStatus from, AppointmentStatus to) throws IOException {
+        writer.append(new TransitionRecord(writer.getNextSequence(), Instant.now(), appointmentId, 1, 2,
+                LocalDateTime.of(2030, 1, 1, 9, 0), 5L, from, to));
+    }
+}
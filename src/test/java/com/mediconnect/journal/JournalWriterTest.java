@@ -0,0 +1,125 @@
+package com.mediconnect.journal;
+
+import com.mediconnect.model.AppointmentStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rollsOverToNewSegmentWhenFull() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 4)) {
+            appendBookings(writer, 10);
+        }
+
+        assertThat(JournalReader.segments(directory))
+                .extracting(JournalReader::firstSequence)
+                .containsExactly(1L, 5L, 9L);
+        assertThat(replay()).extracting(TransitionRecord::sequence)
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+    }
+
+    @Test
+    void resumesAfterLastValidRecordOnReopen() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 8)) {
+            appendBookings(writer, 5);
+        }
+        // A torn write of the fifth record
+        Path segment = JournalReader.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 4L * TransitionRecord.SIZE + 20);
+        }
+
+        try (JournalWriter writer = new JournalWriter(directory, 8)) {
+            assertThat(writer.getNextSequence()).isEqualTo(5);
+            writer.append(booking(5, 500));
+            writer.append(booking(6, 600));
+        }
+
+        assertThat(replay()).extracting(TransitionRecord::appointmentId)
+                .containsExactly(100L, 200L, 300L, 400L, 500L, 600L);
+    }
+
+    @Test
+    void reopensFullSegmentAndRollsOver() throws IOException {
+        try (JournalWriter writer = new JournalWriter(directory, 4)) {
+            appendBookings(writer, 4);
+        }
+
+        try (JournalWriter writer = new JournalWriter(directory, 4)) {
+            assertThat(writer.getNextSequence()).isEqualTo(5);
+            writer.append(booking(5, 500));
+        }
+
+        assertThat(JournalReader.segments(directory)).hasSize(2);
+        assertThat(replay()).hasSize(5);
+    }
+
+    @Test
+    void deletesOnlyExpiredFullSegments() throws IOException {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(30));
+        try (JournalWriter writer = new JournalWriter(directory, 2)) {
+            appendBookings(writer, 7);
+            List<Path> segments = JournalReader.segments(directory);
+            age(segments.get(0), Duration.ofDays(60));
+            age(segments.get(1), Duration.ofDays(40));
+            age(segments.get(2), Duration.ofDays(10));
+            age(segments.get(3), Duration.ofDays(60));
+
+            assertThat(writer.deleteSegmentsBefore(cutoff)).isEqualTo(2);
+            assertThat(JournalReader.segments(directory))
+                    .extracting(JournalReader::firstSequence)
+                    .containsExactly(5L, 7L);
+
+            age(JournalReader.segments(directory).get(0), Duration.ofDays(60));
+            // The segment being appended to is kept however old it is
+            assertThat(writer.deleteSegmentsBefore(cutoff)).isEqualTo(1);
+            assertThat(JournalReader.segments(directory))
+                    .extracting(JournalReader::firstSequence)
+                    .containsExactly(7L);
+
+            writer.append(booking(8, 800));
+        }
+        assertThat(replay()).extracting(TransitionRecord::sequence).containsExactly(7L, 8L);
+    }
+
+    private List<TransitionRecord> replay() throws IOException {
+        List<TransitionRecord> records = new ArrayList<>();
+        JournalReader.replay(directory, records::add);
+        return records;
+    }
+
+    private static void appendBookings(JournalWriter writer, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            long sequence = writer.getNextSequence();
+            writer.append(booking(sequence, sequence * 100));
+        }
+    }
+
+    private static TransitionRecord booking(long sequence, long appointmentId) {
+        return new TransitionRecord(sequence, Instant.now(), appointmentId, 1, 2,
+                LocalDateTime.of(2030, 1, 1, 9, 0), null, null, AppointmentStatus.PENDING);
+    }
+
+    private static void age(Path segment, Duration age) throws IOException {
+        Files.setLastModifiedTime(segment, FileTime.from(Instant.now().minus(age)));
+    }
+}
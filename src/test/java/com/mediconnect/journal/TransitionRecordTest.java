@@ -0,0 +1,52 @@
+package com.mediconnect.journal;
+
+import com.mediconnect.model.AppointmentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransitionRecordTest {
+
+    @Test
+    void roundTripsThroughBuffer() {
+        TransitionRecord booked = new TransitionRecord(1, Instant.ofEpochMilli(1_700_000_000_123L), 42, 7, 9,
+                LocalDateTime.of(2030, 5, 6, 10, 30), null, null, AppointmentStatus.PENDING);
+        TransitionRecord cancelled = new TransitionRecord(2, Instant.ofEpochMilli(1_700_000_100_456L), 42, 7, 9,
+                LocalDateTime.of(2030, 5, 6, 10, 30), 3L, AppointmentStatus.PENDING, AppointmentStatus.CANCELLED);
+        ByteBuffer buffer = ByteBuffer.allocate(2 * TransitionRecord.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        booked.writeTo(buffer, 0);
+        cancelled.writeTo(buffer, TransitionRecord.SIZE);
+
+        assertThat(TransitionRecord.readFrom(buffer, 0)).isEqualTo(booked);
+        assertThat(TransitionRecord.readFrom(buffer, TransitionRecord.SIZE)).isEqualTo(cancelled);
+    }
+
+    @Test
+    void rejectsUnwrittenAndCorruptedRecords() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * TransitionRecord.SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        new TransitionRecord(1, Instant.now(), 42, 7, 9, LocalDateTime.of(2030, 5, 6, 10, 30), null, null,
+                AppointmentStatus.PENDING).writeTo(buffer, 0);
+
+        buffer.put(20, (byte) (buffer.get(20) ^ 1));
+
+        assertThat(TransitionRecord.readFrom(buffer, 0)).isNull();
+        assertThat(TransitionRecord.readFrom(buffer, TransitionRecord.SIZE)).isNull();
+    }
+
+    // Journals already on disk depend on these values
+    @Test
+    void keepsStatusCodesStable() {
+        assertThat(TransitionRecord.code(AppointmentStatus.PENDING)).isEqualTo((byte) 0);
+        assertThat(TransitionRecord.code(AppointmentStatus.CONFIRMED)).isEqualTo((byte) 1);
+        assertThat(TransitionRecord.code(AppointmentStatus.CANCELLED)).isEqualTo((byte) 2);
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            assertThat(TransitionRecord.status(TransitionRecord.code(status))).isEqualTo(status);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.mediconnect.querybudget;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mediconnect.config.DataInitializer;
+import com.mediconnect.dto.AppointmentCursor;
+import com.mediconnect.service.AppointmentArchiver;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs every {@link QueryBudget} endpoint in {@code fail} mode with the second-level cache and
+ * the token version cache empty, which is the most statements a request can take.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.open-in-view=false",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create",
+        "jwt.secret=query-budget-test-secret-key-at-least-32-bytes",
+        "jwt.expiration-ms=3600000",
+        "jwt.token-version.cache-ttl-ms=0",
+        "rate-limit.enabled=false",
+        "appointments.journal.enabled=false",
+        "query-budget.mode=fail"
+})
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataInitializer dataInitializer;
+
+    @Autowired
+    private AppointmentArchiver appointmentArchiver;
+
+    private String patientToken;
+    private String adminToken;
+    private long doctorId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataInitializer.seeded().get(30, TimeUnit.SECONDS);
+        String username = "budget-patient-" + USERS.incrementAndGet();
+        mvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"fullName\":\"Budget Patient\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        patientToken = login(username, "secret123");
+        adminToken = login("admin", "admin123");
+        String doctors = mvc.perform(get("/api/doctors").header(HttpHeaders.AUTHORIZATION, bearer(patientToken)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        doctorId = ((Number) JsonPath.read(doctors, "$[0].id")).longValue();
+    }
+
+    @Test
+    void register() throws Exception {
+        expectWithinBudget(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"budget-new-" + USERS.incrementAndGet() + "\",\"fullName\":\"New\",\"password\":\"secret123\"}"));
+    }
+
+    @Test
+    void login() throws Exception {
+        expectWithinBudget(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"admin\",\"password\":\"admin123\"}"));
+    }
+
+    @Test
+    void logout() throws Exception {
+        expectWithinBudget(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer(patientToken)),
+                status().isNoContent());
+    }
+
+    @Test
+    void listDoctors() throws Exception {
+        expectWithinBudget(get("/api/doctors").header(HttpHeaders.AUTHORIZATION, bearer(patientToken)));
+    }
+
+    @Test
+    void createDoctor() throws Exception {
+        expectWithinBudget(post("/api/doctors")
+                .header(HttpHeaders.AUTHORIZATION, bearer(adminToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Dr. Budget\",\"specialization\":\"Neurology\"}"));
+    }
+
+    @Test
+    void doctorAvailability() throws Exception {
+        expectWithinBudget(get("/api/doctors/{id}/availability", doctorId)
+                .header(HttpHeaders.AUTHORIZATION, bearer(patientToken)));
+    }
+
+    @Test
+    void bookAppointment() throws Exception {
+        expectWithinBudget(bookRequest(LocalDate.now().plusDays(30 + USERS.get())));
+    }
+
+    @Test
+    void myAppointments() throws Exception {
+        book(LocalDate.now().plusDays(30 + USERS.get()));
+        expectWithinBudget(get("/api/appointments/me").header(HttpHeaders.AUTHORIZATION, bearer(patientToken)));
+    }
+
+    @Test
+    void myPastAppointmentsIncludeArchived() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(30 + USERS.get());
+        long appointmentId = book(day);
+        appointmentArchiver.archiveBefore(day.plusDays(1).atStartOfDay());
+        String cursor = new AppointmentCursor(day.plusDays(1).atStartOfDay(), 0L).encode();
+
+        expectWithinBudget(get("/api/appointments/me")
+                        .param("view", "past")
+                        .param("cursor", cursor)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(patientToken)),
+                jsonPath("$.items[0].id").value(appointmentId));
+    }
+
+    @Test
+    void adminStats() throws Exception {
+        expectWithinBudget(get("/api/admin/stats").header(HttpHeaders.AUTHORIZATION, bearer(adminToken)));
+    }
+
+    @Test
+    void adminAppointments() throws Exception {
+        book(LocalDate.now().plusDays(30 + USERS.get()));
+        expectWithinBudget(get("/api/admin/appointments").header(HttpHeaders.AUTHORIZATION, bearer(adminToken)));
+    }
+
+    @Test
+    void adminSearch() throws Exception {
+        book(LocalDate.now().plusDays(30 + USERS.get()));
+        expectWithinBudget(get("/api/admin/appointments/search")
+                .param("doctorId", String.valueOf(doctorId))
+                .param("patientName", "Budget")
+                .header(HttpHeaders.AUTHORIZATION, bearer(adminToken)));
+    }
+
+    @Test
+    void updateStatus() throws Exception {
+        long appointmentId = book(LocalDate.now().plusDays(30 + USERS.get()));
+        expectWithinBudget(patch("/api/admin/appointments/{id}/status", appointmentId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(adminToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"CANCELLED\"}"),
+                status().isNoContent());
+    }
+
+    private void expectWithinBudget(RequestBuilder request) throws Exception {
+        expectWithinBudget(request, status().isOk());
+    }
+
+    // An over-budget request is answered with 500 and the SQL it ran
+    private void expectWithinBudget(RequestBuilder request, ResultMatcher expected) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        mvc.perform(request).andExpect(status().is2xxSuccessful()).andExpect(expected);
+    }
+
+    private RequestBuilder bookRequest(LocalDate day) {
+        return post("/api/appointments")
+                .header(HttpHeaders.AUTHORIZATION, bearer(patientToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"doctorId\":" + doctorId + ",\"appointmentTime\":\"" + day + "T10:00:00\"}");
+    }
+
+    private long book(LocalDate day) throws Exception {
+        String body = mvc.perform(bookRequest(day))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.id")).longValue();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.token");
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
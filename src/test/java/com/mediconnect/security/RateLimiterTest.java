@@ -0,0 +1,97 @@
+package com.mediconnect.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    // Slow enough that no token comes back while a test runs
+    private static final RateLimiter.Budget ONE_PER_HOUR_BURST_5 = RateLimiter.Budget.of(1.0 / 3600, 5);
+
+    @Test
+    void budgetSpacesTokensByRateAndAllowsBurstOfThem() {
+        RateLimiter.Budget budget = RateLimiter.Budget.of(4, 10);
+
+        assertThat(budget.intervalNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(250));
+        assertThat(budget.toleranceNanos()).isEqualTo(10 * budget.intervalNanos());
+        assertThatThrownBy(() -> RateLimiter.Budget.of(0, 10)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> RateLimiter.Budget.of(1, 0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void fullBucketAdmitsBurstThenRejects() {
+        RateLimiter limiter = new RateLimiter(100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("client", ONE_PER_HOUR_BURST_5)).isZero();
+        }
+        long wait = limiter.tryAcquire("client", ONE_PER_HOUR_BURST_5);
+
+        // The next token is one interval away, less what has passed since the burst started
+        assertThat(wait).isPositive().isLessThanOrEqualTo(ONE_PER_HOUR_BURST_5.intervalNanos());
+        assertThat(wait).isGreaterThan(ONE_PER_HOUR_BURST_5.intervalNanos() - TimeUnit.MINUTES.toNanos(1));
+        assertThat(limiter.tryAcquire("other", ONE_PER_HOUR_BURST_5)).isZero();
+    }
+
+    @Test
+    void rejectedRequestsDoNotUseUpTokens() {
+        RateLimiter limiter = new RateLimiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("client", ONE_PER_HOUR_BURST_5);
+        }
+
+        long first = limiter.tryAcquire("client", ONE_PER_HOUR_BURST_5);
+        long second = limiter.tryAcquire("client", ONE_PER_HOUR_BURST_5);
+
+        assertThat(second).isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void tokenComesBackAfterTheReportedWait() throws InterruptedException {
+        RateLimiter.Budget budget = RateLimiter.Budget.of(5, 1);
+        RateLimiter limiter = new RateLimiter(100);
+        long first = limiter.tryAcquire("client", budget);
+        long wait = limiter.tryAcquire("client", budget);
+        assertThat(first).isZero();
+        assertThat(wait).isPositive().isLessThanOrEqualTo(budget.intervalNanos());
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(1));
+        long refilled = limiter.tryAcquire("client", budget);
+        long next = limiter.tryAcquire("client", budget);
+
+        assertThat(refilled).isZero();
+        assertThat(next).isPositive();
+    }
+
+    @Test
+    void sweepDropsOnlyRefilledBuckets() throws InterruptedException {
+        RateLimiter.Budget fast = RateLimiter.Budget.of(1000, 1);
+        RateLimiter limiter = new RateLimiter(100);
+        limiter.tryAcquire("idle", fast);
+        limiter.tryAcquire("busy", ONE_PER_HOUR_BURST_5);
+        TimeUnit.MILLISECONDS.sleep(5);
+
+        limiter.sweep();
+
+        assertThat(limiter.getSize()).isEqualTo(1);
+        assertThat(limiter.getEvictions()).isEqualTo(1);
+        // The swept client starts again from a full bucket
+        assertThat(limiter.tryAcquire("idle", fast)).isZero();
+    }
+
+    @Test
+    void staysWithinMaxKeys() {
+        RateLimiter limiter = new RateLimiter(10);
+
+        for (int i = 0; i < 25; i++) {
+            assertThat(limiter.tryAcquire("client-" + i, ONE_PER_HOUR_BURST_5)).isZero();
+        }
+
+        assertThat(limiter.getSize()).isLessThanOrEqualTo(10);
+        assertThat(limiter.getEvictions()).isPositive();
+    }
+}
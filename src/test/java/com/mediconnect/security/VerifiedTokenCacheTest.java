@@ -0,0 +1,81 @@
+package com.mediconnect.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void servesVerifiedTokenUntilItExpires() {
+        VerifiedTokenCache cache = newCache(100);
+        // exp has whole-second precision, so the token lives between 59 and 60 seconds from now
+        Claims claims = claimsExpiringIn(TimeUnit.SECONDS.toMillis(60));
+
+        cache.put("token", claims);
+        Claims cached = cache.get("token");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(58));
+        Claims beforeExpiry = cache.get("token");
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        Claims afterExpiry = cache.get("token");
+
+        assertThat(cached).isSameAs(claims);
+        assertThat(beforeExpiry).isSameAs(claims);
+        assertThat(afterExpiry).isNull();
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void neverServesTokenThatHasAlreadyExpired() {
+        VerifiedTokenCache cache = newCache(100);
+
+        cache.put("token", claimsExpiringIn(-TimeUnit.SECONDS.toMillis(5)));
+
+        assertThat(cache.get("token")).isNull();
+    }
+
+    @Test
+    void skipsTokensWithoutExpirationAndDisabledCache() {
+        VerifiedTokenCache cache = newCache(100);
+        VerifiedTokenCache disabled = newCache(0);
+
+        cache.put("token", Jwts.claims().setSubject("patient"));
+        disabled.put("token", claimsExpiringIn(TimeUnit.SECONDS.toMillis(60)));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(disabled.get("token")).isNull();
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        VerifiedTokenCache cache = newCache(10);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, claimsExpiringIn(TimeUnit.SECONDS.toMillis(60)));
+        }
+
+        assertThat(cache.getSize()).isEqualTo(10);
+        assertThat(cache.getEvictions()).isEqualTo(90);
+    }
+
+    // Time only moves when a test advances it, and maintenance runs on the calling thread
+    private VerifiedTokenCache newCache(int maxEntries) {
+        return new VerifiedTokenCache(maxEntries, nanos::get, Runnable::run);
+    }
+
+    private static Claims claimsExpiringIn(long millis) {
+        return Jwts.claims()
+                .setSubject("patient")
+                .setExpiration(new Date(System.currentTimeMillis() + millis));
+    }
+}
@@ -0,0 +1,178 @@
+package com.mediconnect.service;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mediconnect.config.DataInitializer;
+import com.mediconnect.model.DoctorDayCapacity;
+import com.mediconnect.model.DoctorDayKey;
+import com.mediconnect.repository.DoctorDayCapacityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mediconnect.service.DoctorCapacityLedger.MAX_APPOINTMENTS_PER_DAY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:capacity;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.open-in-view=false",
+        // The JCache manager is shared across the JVM, so cached rows would leak between test contexts
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "jwt.secret=capacity-test-secret-key-at-least-32-bytes",
+        "jwt.expiration-ms=3600000",
+        "rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+class DoctorCapacityLedgerIntegrationTest {
+
+    private static final int CONCURRENT_BOOKINGS = 12;
+    private static final AtomicInteger DAYS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private DoctorDayCapacityRepository capacityRepository;
+
+    @Autowired
+    private DataInitializer dataInitializer;
+
+    private String patientToken;
+    private String adminToken;
+    private long doctorId;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataInitializer.seeded().get(30, TimeUnit.SECONDS);
+        String username = "capacity-patient-" + DAYS.incrementAndGet();
+        mvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"fullName\":\"Capacity Patient\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        patientToken = login(username, "secret123");
+        adminToken = login("admin", "admin123");
+        String doctors = mvc.perform(get("/api/doctors").header(HttpHeaders.AUTHORIZATION, bearer(patientToken)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        doctorId = ((Number) JsonPath.read(doctors, "$[0].id")).longValue();
+        // A fresh day per test, so no capacity row exists yet
+        day = LocalDate.now().plusDays(90 + DAYS.get());
+    }
+
+    @Test
+    void concurrentBookingsStopAtDailyCap() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_BOOKINGS);
+        List<Integer> statuses = new ArrayList<>();
+        try {
+            List<Future<MvcResult>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_BOOKINGS; i++) {
+                int hour = 9 + i % 8;
+                Callable<MvcResult> booking = () -> {
+                    start.await();
+                    return mvc.perform(bookRequest(hour)).andReturn();
+                };
+                responses.add(executor.submit(booking));
+            }
+            start.countDown();
+            for (Future<MvcResult> response : responses) {
+                statuses.add(response.get(60, TimeUnit.SECONDS).getResponse().getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(statuses).filteredOn(status -> status == 200).hasSize(MAX_APPOINTMENTS_PER_DAY);
+        assertThat(statuses).filteredOn(status -> status == 400).hasSize(CONCURRENT_BOOKINGS - MAX_APPOINTMENTS_PER_DAY);
+        assertThat(booked()).isEqualTo(MAX_APPOINTMENTS_PER_DAY);
+    }
+
+    @Test
+    void cancellingReleasesSlotAndReactivatingTakesItAgain() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < MAX_APPOINTMENTS_PER_DAY; i++) {
+            ids.add(book(9 + i));
+        }
+        mvc.perform(bookRequest(15)).andExpect(status().isBadRequest());
+
+        updateStatus(ids.get(0), "CANCELLED").andExpect(status().isNoContent());
+        assertThat(booked()).isEqualTo(MAX_APPOINTMENTS_PER_DAY - 1);
+        long replacement = book(15);
+        assertThat(booked()).isEqualTo(MAX_APPOINTMENTS_PER_DAY);
+
+        // The day is full again, so the cancelled appointment cannot come back
+        updateStatus(ids.get(0), "CONFIRMED").andExpect(status().isBadRequest());
+        assertThat(booked()).isEqualTo(MAX_APPOINTMENTS_PER_DAY);
+
+        updateStatus(replacement, "CANCELLED").andExpect(status().isNoContent());
+        updateStatus(ids.get(0), "CONFIRMED").andExpect(status().isNoContent());
+        assertThat(booked()).isEqualTo(MAX_APPOINTMENTS_PER_DAY);
+        mvc.perform(bookRequest(16)).andExpect(status().isBadRequest());
+    }
+
+    private int booked() {
+        return capacityRepository.findById(new DoctorDayKey(doctorId, day))
+                .map(DoctorDayCapacity::getBooked)
+                .orElse(0);
+    }
+
+    private RequestBuilder bookRequest(int hour) {
+        return post("/api/appointments")
+                .header(HttpHeaders.AUTHORIZATION, bearer(patientToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"doctorId\":" + doctorId + ",\"appointmentTime\":\"" + day.atTime(hour, 0) + "\"}");
+    }
+
+    private long book(int hour) throws Exception {
+        String body = mvc.perform(bookRequest(hour))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, "$.id")).longValue();
+    }
+
+    private ResultActions updateStatus(long appointmentId, String status) throws Exception {
+        return mvc.perform(patch("/api/admin/appointments/{id}/status", appointmentId)
+                .header(HttpHeaders.AUTHORIZATION, bearer(adminToken))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"" + status + "\"}"));
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.token");
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
@@ -0,0 +1,168 @@
+package com.mediconnect.service;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mediconnect.config.DataInitializer;
+import com.mediconnect.dto.AppointmentResponseDto;
+import com.mediconnect.model.AppointmentStatus;
+import com.mediconnect.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.open-in-view=false",
+        // The JCache manager is shared across the JVM, so cached rows would leak between test contexts
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "jwt.secret=idempotency-test-secret-key-at-least-32-bytes",
+        "jwt.expiration-ms=3600000",
+        "rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+class IdempotencyStoreIntegrationTest {
+
+    private static final int CONCURRENT_REQUESTS = 8;
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DataInitializer dataInitializer;
+
+    private String username;
+    private String token;
+    private long doctorId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataInitializer.seeded().get(30, TimeUnit.SECONDS);
+        username = "idempotent-patient-" + USERS.incrementAndGet();
+        mvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"fullName\":\"Idempotent Patient\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        String login = mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        token = JsonPath.read(login, "$.token");
+        String doctors = mvc.perform(get("/api/doctors").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        doctorId = ((Number) JsonPath.read(doctors, "$[0].id")).longValue();
+    }
+
+    @Test
+    void concurrentDuplicatesBookOnce() throws Exception {
+        String key = UUID.randomUUID().toString();
+        LocalDateTime time = LocalDate.now().plusDays(60 + USERS.get()).atTime(10, 0);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        try {
+            List<Future<MvcResult>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                Callable<MvcResult> request = () -> {
+                    start.await();
+                    return mvc.perform(post("/api/appointments")
+                                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                                    .header("Idempotency-Key", key)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"doctorId\":" + doctorId + ",\"appointmentTime\":\"" + time + "\"}"))
+                            .andReturn();
+                };
+                responses.add(executor.submit(request));
+            }
+            start.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<MvcResult> response : responses) {
+                MvcResult result = response.get(30, TimeUnit.SECONDS);
+                assertThat(result.getResponse().getStatus()).isEqualTo(200);
+                ids.add(((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.id")).longValue());
+            }
+            assertThat(ids).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(appointmentRepository.findAll().stream()
+                .filter(appointment -> appointment.getDoctor().getId() == doctorId)
+                .filter(appointment -> appointment.getAppointmentTime().equals(time))
+                .collect(Collectors.toList()))
+                .hasSize(1);
+    }
+
+    @Test
+    void failedAttemptIsForgotten() {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+        AppointmentResponseDto booked = new AppointmentResponseDto(42L, doctorId, "Dr. Idempotent", "Cardiology",
+                LocalDate.now().plusDays(5).atTime(9, 0), AppointmentStatus.PENDING);
+
+        assertThatThrownBy(() -> idempotencyStore.execute(username, key, "same", AppointmentResponseDto.class, () -> {
+            runs.incrementAndGet();
+            throw new IllegalArgumentException("Doctor is fully booked");
+        })).hasMessage("Doctor is fully booked");
+
+        assertThat(idempotencyStore.execute(username, key, "same", AppointmentResponseDto.class, () -> {
+            runs.incrementAndGet();
+            return booked;
+        })).isEqualTo(booked);
+        // Replayed from the stored response
+        assertThat(idempotencyStore.execute(username, key, "same", AppointmentResponseDto.class, () -> {
+            runs.incrementAndGet();
+            return null;
+        })).isEqualTo(booked);
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void rejectsKeyReusedForDifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        idempotencyStore.execute(username, key, "first", String.class, () -> "booked");
+
+        assertThatThrownBy(() -> idempotencyStore.execute(username, key, "second", String.class, () -> "again"))
+                .isInstanceOf(IllegalArgumentException.class);
+        // Keys are per user
+        assertThat(idempotencyStore.execute(username + "-other", key, "second", String.class, () -> "other"))
+                .isEqualTo("other");
+    }
+}